@@ -0,0 +1,133 @@
+/*
+ * [AnimationState.java]
+ * This file contains the class for where an Entity is in its sprite's animation.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * An AnimationState is an Entity's own place in an animation: which Sprite it's playing, which frame it's on, which way
+ * it faces and how fast it's going. Sprites are shared by every Entity that uses them, so none of this can be kept in
+ * the Sprite. The animation moves on by the length of each tick instead of by the clock on the wall, so playing the
+ * same ticks back always shows the same frames.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class AnimationState {
+    private static final double EPSILON = 1e-9; //how far short of a frame's length adding up ticks can fall, in seconds
+
+    private Sprite sprite;
+    private double elapsed = 0; //how many seconds the current frame has been shown for
+
+    /** The index of which frame of the animation to be drawn. */
+    protected int frameIndex = 0;
+    /** The speed of the animation, in frames per second. This starts as the Sprite's speed whenever the Sprite changes. */
+    protected int fps;
+    /** If the frames should be flipped. */
+    protected boolean flipped = false;
+
+    /**
+     * This constructor starts playing a sprite from its first frame.
+     * @param sprite The sprite to play.
+     */
+    AnimationState (Sprite sprite) {
+        this.sprite = sprite;
+        this.fps = sprite.getFps ();
+    }
+    /**
+     * getSprite returns the sprite being played.
+     * @return The sprite.
+     */
+    public Sprite getSprite () {
+        return this.sprite;
+    }
+    /**
+     * isPlaying checks if a sprite is the one being played (or has the same frames).
+     * @param other The sprite to check.
+     * @return If it is.
+     */
+    public boolean isPlaying (Sprite other) {
+        return this.sprite.equals (other);
+    }
+    /**
+     * change starts playing another sprite from its first frame, still facing the same way. Does nothing if newSprite is
+     * already being played.
+     * @param newSprite The sprite to play.
+     */
+    public void change (Sprite newSprite) {
+        if (!this.sprite.equals (newSprite)) {
+            this.sprite = newSprite;
+            this.frameIndex = 0;
+            this.fps = newSprite.getFps ();
+            this.elapsed = 0;
+        }
+    }
+    /**
+     * advance moves the animation on by one tick, going to the next frame (and wrapping around at the end) whenever the
+     * current one has been shown for long enough. Whatever is left over counts towards the next frame, so frames change
+     * at the animation's speed whatever the tick rate is (e.g. every 12 ticks for 10 fps at 120 ticks per second).
+     * @param dt The length of the tick in seconds.
+     */
+    public void advance (double dt) {
+        double period;
+
+        if (this.fps <= 0) { //a still sprite starts its next animation at the start of a frame
+            this.elapsed = 0;
+            return;
+        }
+
+        period = 1.0 / this.fps;
+        this.elapsed += dt;
+        while (this.elapsed >= period - EPSILON) { //12 ticks of 1/120 s add up to a hair under 0.1 s
+            this.frameIndex = (this.frameIndex + 1) % (this.sprite.getLastIndex () + 1);
+            this.elapsed -= period;
+        }
+    }
+    /**
+     * getLastIndex returns the last frame index of the sprite being played.
+     * @return The last frame index.
+     */
+    public int getLastIndex () {
+        return this.sprite.getLastIndex ();
+    }
+    /**
+     * getImage returns the current frame, facing the right way.
+     * @return The image to draw.
+     */
+    public BufferedImage getImage () {
+        return this.sprite.getImage (this.frameIndex, this.flipped);
+    }
+    /**
+     * getWidth returns the width of the current frame.
+     * @return The width.
+     */
+    public int getWidth () {
+        return this.sprite.getWidth (this.frameIndex);
+    }
+    /**
+     * getHeight returns the height of the current frame.
+     * @return The height.
+     */
+    public int getHeight () {
+        return this.sprite.getHeight (this.frameIndex);
+    }
+    /**
+     * getTightestDimensions returns the collision detector of the current frame.
+     * @return {x, y, width, height} of the opaque part of the frame.
+     */
+    public int[] getTightestDimensions () {
+        return this.sprite.getTightestDimensions (this.frameIndex);
+    }
+    /**
+     * getMask returns the exact shape of the current frame, facing the way it is drawn.
+     * @return The mask of the current frame.
+     */
+    public HitMask getMask () {
+        return this.sprite.getMask (this.frameIndex, this.flipped);
+    }
+}
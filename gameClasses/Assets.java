@@ -0,0 +1,250 @@
+/*
+ * [Assets.java]
+ * This file contains the class that loads the game's images, sounds and levels in the background.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.awt.image.BufferedImage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assets loads everything the game needs on a few worker threads (one per core), so the menu can show up right away
+ * instead of after every image has been decoded. Things are loaded in the order they depend on each other: first the
+ * atlas, then every animation's frames (all at once), and the sounds alongside them. A level is only built once all the
+ * frames and its own backgrounds are ready, so building it never has to wait for anything.
+ * <p>
+ * Levels are only built when they are asked for, since each one holds 5 backgrounds and all their tiles. The most
+ * recently used ones are kept (LEVEL_CACHE_SIZE of them), and the rest are forgotten so they can be garbage collected.
+ * <p>
+ * Anything that wasn't started here (e.g. in a HeadlessMatch) is just loaded on the thread that asks for it.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class Assets {
+    /** How many worker threads load assets at the same time. */
+    public static final int THREADS = Math.max (1, Runtime.getRuntime ().availableProcessors ());
+    /** How many built levels are kept. Run with -DlevelCache= to change it. */
+    public static final int LEVEL_CACHE_SIZE = Math.max (1, Integer.getInteger ("levelCache", 2));
+
+    private static final ExecutorService POOL = Executors.newFixedThreadPool (THREADS, new ThreadFactory () {
+        private AtomicInteger made = new AtomicInteger ();
+
+        @Override public Thread newThread (Runnable task) {
+            Thread thread = new Thread (task, "Asset loader " + made.incrementAndGet ());
+
+            thread.setDaemon (true); //don't keep the game open
+            thread.setPriority (Thread.NORM_PRIORITY - 1); //the menu comes first
+            return thread;
+        }
+    });
+
+    private static ConcurrentHashMap <String, CompletableFuture <SpriteFrames>> frames = new ConcurrentHashMap <String, CompletableFuture <SpriteFrames>> ();
+    private static ConcurrentHashMap <String, CompletableFuture <BufferedImage>> images = new ConcurrentHashMap <String, CompletableFuture <BufferedImage>> ();
+    private static LinkedHashMap <String, CompletableFuture <Level>> levels = new LinkedHashMap <String, CompletableFuture <Level>> (16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry (Map.Entry <String, CompletableFuture <Level>> eldest) {
+            return this.size () > LEVEL_CACHE_SIZE; //forget the level that was used longest ago
+        }
+    }; //in order of use, guarded by Assets.class
+    private static CompletableFuture <Void> allFrames = CompletableFuture.completedFuture (null); //done when every scheduled animation is
+
+    private static AtomicInteger started = new AtomicInteger (); //how many things have been scheduled
+    private static AtomicInteger finished = new AtomicInteger (); //how many of them are done
+    private static long startTime;
+
+    /**
+     * start begins loading the sprites and the sounds in the background.
+     * @return Something that is done once they are loaded.
+     */
+    public static synchronized CompletableFuture <Void> start () {
+        startTime = System.nanoTime ();
+        allFrames = track (CompletableFuture.supplyAsync (() -> Atlas.get (), POOL)).thenCompose (atlas -> loadFrames (atlas))
+            .whenComplete ((done, error) -> HitboxCache.save ()); //keep any frames that had to be measured
+        return CompletableFuture.allOf (allFrames, track (CompletableFuture.runAsync (() -> Sound.load (), POOL)));
+    }
+    /**
+     * level returns a level from the cache, starting to build it in the background if it isn't there. The level
+     * becomes the most recently used one, so it is the last to be forgotten.
+     * <p>
+     * Building a level on a worker uses Sprite (Stage.loadMap makes the players, the barriers and so on), so the first
+     * level built may run Sprite's static initializer on a worker, and that joins on the frames of every static sprite.
+     * This is only safe because the level isn't started until allFrames is done: by then every frame it joins on is
+     * already loaded (or, with no atlas, is loaded right there on the same thread by frames), so no worker ever waits on a
+     * task that is queued behind it. Don't start building a level any earlier than that.
+     * @param name The level's name, e.g. "Castle".
+     * @return Something that gives the level once it is built.
+     */
+    public static synchronized CompletableFuture <Level> level (String name) {
+        CompletableFuture <Level> loading = levels.get (name);
+
+        if (loading == null) {
+            CompletableFuture <?>[] needs = new CompletableFuture <?> [6]; //all the frames, and the 5 backgrounds
+
+            needs [0] = allFrames;
+            for (int i = 0; i < 5; i++) {
+                needs [i + 1] = loadImage (Level.getBackgroundFile (name, i));
+            }
+
+            loading = track (CompletableFuture.allOf (needs)
+                .handle ((done, error) -> null) //if something failed, the level can try again itself and say what went wrong
+                .thenApplyAsync (done -> {
+                    try {
+                        return new Level (name);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException (e);
+                    }
+                }, POOL));
+            levels.put (name, loading);
+        } return loading;
+    }
+    /**
+     * prefetch starts building levels that will probably be played soon, in the order given. Levels that are already
+     * cached are left alone, and it stops once the cache is full, so nothing is ever forgotten to make room.
+     * @param names The levels' names, most likely first.
+     */
+    public static synchronized void prefetch (String... names) {
+        for (String name : names) {
+            if (!levels.containsKey (name)) { //containsKey doesn't count as using it
+                if (levels.size () >= LEVEL_CACHE_SIZE) {
+                    return;
+                } level (name);
+            }
+        }
+    }
+    /**
+     * frames returns the frames of an animation. Every folder is only ever loaded once, and everyone who asks for it gets
+     * the same SpriteFrames, so Sprites can tell if they are the same animation by comparing them. If the frames are being
+     * loaded in the background, this waits for them, otherwise they are loaded right here.
+     * @param folder The animation's folder, e.g. "Images/Players/Left/run".
+     * @return The frames.
+     */
+    static SpriteFrames frames (String folder) {
+        CompletableFuture <SpriteFrames> loading = frames.get (folder);
+
+        if (loading == null) { //never wait on the workers for this, they might be waiting for us
+            CompletableFuture <SpriteFrames> mine = new CompletableFuture <SpriteFrames> ();
+
+            loading = frames.putIfAbsent (folder, mine);
+            if (loading == null) { //nobody else started it first
+                try {
+                    mine.complete (new SpriteFrames (folder));
+                } catch (RuntimeException e) {
+                    frames.remove (folder, mine); //let the next one try again
+                    mine.completeExceptionally (e);
+                    throw e;
+                } loading = mine;
+            }
+        } return loading.join ();
+    }
+    /**
+     * image returns an image, converted to the screen's format. If it is being loaded in the background, this waits for
+     * it and forgets about it, otherwise it is loaded right here.
+     * @param file The image to load.
+     * @return The image.
+     * @throws IOException If the image couldn't be read.
+     */
+    static BufferedImage image (File file) throws IOException {
+        CompletableFuture <BufferedImage> loading = images.remove (file.getPath ());
+
+        if (loading == null) {
+            return ImageLoader.read (file);
+        }
+
+        try {
+            return loading.join ();
+        } catch (CompletionException e) {
+            if (e.getCause () instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause ()).getCause ();
+            } throw e;
+        }
+    }
+    /**
+     * getStartedCount returns how many things have been scheduled to load so far. This goes up as the atlas says which
+     * animations there are.
+     * @return The number of things.
+     */
+    public static int getStartedCount () {
+        return started.get ();
+    }
+    /**
+     * getFinishedCount returns how many of the scheduled things are done loading.
+     * @return The number of things.
+     */
+    public static int getFinishedCount () {
+        return finished.get ();
+    }
+    /**
+     * report describes how long loading took, and on how many threads.
+     * @return A line to print.
+     */
+    public static String report () {
+        return "Loaded " + getFinishedCount () + " assets in " + ((System.nanoTime () - startTime) / 1000000) + " ms on " + THREADS + " threads";
+    }
+    /*
+     * loadFrames starts loading every animation in the atlas. Animations that are copies of each other (the same
+     * frames) are only loaded once, but each folder still gets its own SpriteFrames sharing the loaded images, so
+     * Sprites of different folders never compare equal just because their art is the same.
+     * @return Something that is done once they all are.
+     */
+    private static CompletableFuture <Void> loadFrames (Atlas atlas) {
+        HashMap <String, CompletableFuture <SpriteFrames>> byFrames = new HashMap <String, CompletableFuture <SpriteFrames>> ();
+        ArrayList <CompletableFuture <SpriteFrames>> all = new ArrayList <CompletableFuture <SpriteFrames>> ();
+
+        if (atlas == null) { //no atlas, so no list of animations: Sprite loads them itself as it needs them
+            return CompletableFuture.completedFuture (null);
+        }
+
+        for (String folder : atlas.getAnimationNames ()) {
+            String ids = Arrays.toString (atlas.getFrameIds (folder));
+            CompletableFuture <SpriteFrames> loading = byFrames.get (ids);
+
+            if (loading == null) {
+                loading = track (CompletableFuture.supplyAsync (() -> new SpriteFrames (folder), POOL));
+                byFrames.put (ids, loading);
+            } else {
+                loading = loading.thenApply (original -> new SpriteFrames (original)); //only the arrays are shared
+            }
+            frames.putIfAbsent (folder, loading);
+            all.add (loading);
+        } return CompletableFuture.allOf (all.toArray (new CompletableFuture <?> [0]));
+    }
+    /*
+     * loadImage starts loading an image, unless it is already being loaded.
+     */
+    private static CompletableFuture <BufferedImage> loadImage (File file) {
+        return images.computeIfAbsent (file.getPath (), path -> track (CompletableFuture.supplyAsync (() -> {
+            try {
+                return ImageLoader.read (file);
+            } catch (IOException e) {
+                throw new UncheckedIOException (e);
+            }
+        }, POOL)));
+    }
+    /*
+     * track counts a task towards the progress, and counts it as finished once it is.
+     */
+    private static <T> CompletableFuture <T> track (CompletableFuture <T> task) {
+        started.incrementAndGet ();
+        task.whenComplete ((result, error) -> finished.incrementAndGet ());
+        return task;
+    }
+}
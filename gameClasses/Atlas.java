@@ -0,0 +1,425 @@
+/*
+ * [Atlas.java]
+ * This file contains the texture atlas that every sprite frame is packed into.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import javax.imageio.ImageIO;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.math.BigInteger;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * The Atlas packs every animation frame under Images/ into a few big sheets, so loading the sprites takes a handful of
+ * PNG decodes instead of one per frame. Next to the sheets is a small binary index with where each frame is, which
+ * frames make up each animation (by folder name), and each frame's collision box.
+ * <p>
+ * Frames with exactly the same pixels are only packed once, which takes care of the copy of everything under
+ * Images/Images. The atlas is built the first time it is needed, and built again whenever an image under Images/ is
+ * added, removed or changed. It lives in Atlas/, which isn't committed. Run with -Datlas=off to load every frame from
+ * its own file like before.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class Atlas {
+    /** Where the frames are read from. */
+    public static final File SOURCE = new File ("Images");
+    /** Where the sheets and the index are written. */
+    public static final File DIRECTORY = new File ("Atlas");
+    /** How wide and tall each sheet is. */
+    public static final int SHEET_SIZE = 1024;
+
+    private static final int MAGIC = 0x41544C53; //"ATLS"
+    private static final int VERSION = 1;
+    private static final String INDEX_NAME = "atlas.idx";
+
+    private static Atlas atlas; //the loaded atlas
+    private static boolean loaded = false; //if loading has been tried, so a broken atlas isn't tried again and again
+
+    private BufferedImage[] frames; //every unique frame, cut out of its sheet
+    private int[][] hitboxes; //the collision box of every unique frame
+    private HashMap <String, int[]> animations = new HashMap <String, int[]> (); //folder name -> the frames in it, in order
+
+    /**
+     * get returns the atlas, loading it (and building it first if it is missing or out of date) the first time.
+     * @return The atlas, or null if it is turned off or couldn't be built.
+     */
+    public static synchronized Atlas get () {
+        if (!loaded) {
+            loaded = true;
+            if (!"off".equals (System.getProperty ("atlas"))) {
+                try {
+                    atlas = load ();
+                } catch (IOException e) {
+                    System.out.println ("Couldn't load the texture atlas, loading frames one by one instead: " + e.getMessage ());
+                }
+            }
+        } return atlas;
+    }
+    /**
+     * getFrames returns the frames of an animation.
+     * @param folder The animation's folder, e.g. "Images/Players/Left/run".
+     * @return A new array of the frames, in order, or null if the atlas doesn't have the animation.
+     */
+    public BufferedImage[] getFrames (String folder) {
+        int[] ids = this.animations.get (key (folder));
+        BufferedImage[] result;
+
+        if (ids == null) {
+            return null;
+        }
+
+        result = new BufferedImage [ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result [i] = this.frames [ids [i]];
+        } return result;
+    }
+    /**
+     * getHitboxes returns the collision boxes of an animation's frames, the same as Sprite would measure them.
+     * @param folder The animation's folder.
+     * @return A new array of {x, y, width, height} for each frame, or null if the atlas doesn't have the animation.
+     */
+    public int[][] getHitboxes (String folder) {
+        int[] ids = this.animations.get (key (folder));
+        int[][] result;
+
+        if (ids == null) {
+            return null;
+        }
+
+        result = new int [ids.length][];
+        for (int i = 0; i < ids.length; i++) {
+            result [i] = this.hitboxes [ids [i]].clone ();
+        } return result;
+    }
+    /**
+     * getAnimationNames returns the folder of every animation in the atlas.
+     * @return The folders, e.g. "Images/Players/Left/run", in no particular order.
+     */
+    public String[] getAnimationNames () {
+        return this.animations.keySet ().toArray (new String [0]);
+    }
+    /**
+     * getFrameIds returns which unique frames an animation is made of. Two animations with the same ids are copies of
+     * each other.
+     * @param folder The animation's folder.
+     * @return A new array of the ids of its frames, in order, or null if the atlas doesn't have the animation.
+     */
+    public int[] getFrameIds (String folder) {
+        int[] ids = this.animations.get (key (folder));
+
+        return (ids == null) ? null : ids.clone ();
+    }
+    /**
+     * build packs every animation under SOURCE into sheets and writes them, with the index, into DIRECTORY.
+     * @throws IOException If a frame can't be read or is too big for a sheet, or the atlas can't be written.
+     */
+    public static void build () throws IOException {
+        ArrayList <File> folders = new ArrayList <File> ();
+        ArrayList <BufferedImage> unique = new ArrayList <BufferedImage> ();
+        ArrayList <int[]> uniqueHitboxes = new ArrayList <int[]> ();
+        HashMap <String, Integer> byHash = new HashMap <String, Integer> ();
+        ArrayList <int[]> animationFrames = new ArrayList <int[]> ();
+        int[][] places; //{sheet, x, y} of each unique frame
+        int sheets;
+        long[] fingerprint = fingerprint ();
+
+        findAnimations (SOURCE, folders);
+
+        /* Decode every frame, keeping one copy of each */
+        for (File folder : folders) {
+            int count = countFrames (folder);
+            int[] ids = new int [count];
+
+            for (int i = 0; i < count; i++) {
+                File file = new File (folder, i + ".png");
+                BufferedImage frame = ImageIO.read (file);
+                String hash;
+                Integer id;
+
+                if (frame == null) {
+                    throw new IOException ("Not an image: " + file);
+                } else if ((frame.getWidth () > SHEET_SIZE) || (frame.getHeight () > SHEET_SIZE)) { //it would be cut off
+                    throw new IOException (file + " is " + frame.getWidth () + "x" + frame.getHeight () + ", which doesn't fit on a "
+                                           + SHEET_SIZE + "x" + SHEET_SIZE + " sheet");
+                }
+                hash = hash (frame);
+                id = byHash.get (hash);
+                if (id == null) {
+                    id = unique.size ();
+                    byHash.put (hash, id);
+                    unique.add (frame);
+                    uniqueHitboxes.add (HitboxCache.get (file, frame));
+                } ids [i] = id;
+            } animationFrames.add (ids);
+        }
+
+        /* Pack them into shelves, tallest first, starting a new sheet when one fills up */
+        places = new int [unique.size ()][];
+        sheets = pack (unique, places);
+
+        DIRECTORY.mkdirs ();
+        for (int s = 0; s < sheets; s++) {
+            BufferedImage sheet = new BufferedImage (SHEET_SIZE, SHEET_SIZE, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = sheet.createGraphics ();
+
+            g.setComposite (AlphaComposite.Src); //copy pixels exactly, clear ones included
+            for (int i = 0; i < unique.size (); i++) {
+                if (places [i][0] == s) {
+                    g.drawImage (unique.get (i), places [i][1], places [i][2], null);
+                }
+            } g.dispose ();
+            ImageIO.write (sheet, "png", new File (DIRECTORY, "sheet" + s + ".png"));
+        }
+
+        /* Write the index last, so a half-built atlas is never used */
+        try (DataOutputStream out = new DataOutputStream (new BufferedOutputStream (new FileOutputStream (new File (DIRECTORY, INDEX_NAME))))) {
+            out.writeInt (MAGIC);
+            out.writeInt (VERSION);
+            out.writeLong (fingerprint [0]);
+            out.writeLong (fingerprint [1]);
+            out.writeInt (sheets);
+
+            out.writeInt (unique.size ());
+            for (int i = 0; i < unique.size (); i++) {
+                out.writeShort (places [i][0]);
+                out.writeShort (places [i][1]);
+                out.writeShort (places [i][2]);
+                out.writeShort (unique.get (i).getWidth ());
+                out.writeShort (unique.get (i).getHeight ());
+                for (int value : uniqueHitboxes.get (i)) {
+                    out.writeShort (value);
+                }
+            }
+
+            out.writeInt (folders.size ());
+            for (int a = 0; a < folders.size (); a++) {
+                out.writeUTF (key (folders.get (a).getPath ()));
+                out.writeShort (animationFrames.get (a).length);
+                for (int id : animationFrames.get (a)) {
+                    out.writeShort (id);
+                }
+            }
+        }
+
+        HitboxCache.save ();
+        System.out.println ("Built texture atlas: " + countAll (animationFrames) + " frames, " + unique.size () + " of them unique, in "
+                            + sheets + " sheet(s)");
+    }
+    /*
+     * load reads the atlas from DIRECTORY, building it first if it is missing or doesn't match the images anymore.
+     */
+    private static Atlas load () throws IOException {
+        File index = new File (DIRECTORY, INDEX_NAME);
+        Atlas loadedAtlas = index.exists () ? read (index, fingerprint ()) : null;
+
+        if (loadedAtlas == null) {
+            build ();
+            loadedAtlas = read (index, fingerprint ());
+            if (loadedAtlas == null) {
+                throw new IOException ("the atlas that was just built doesn't match the images");
+            }
+        } return loadedAtlas;
+    }
+    /*
+     * read reads the index and the sheets.
+     * @return The atlas, or null if the index is from another version or other images.
+     */
+    private static Atlas read (File index, long[] fingerprint) throws IOException {
+        Atlas result = new Atlas ();
+        BufferedImage[] sheets;
+        int[][] places;
+
+        try (DataInputStream in = new DataInputStream (new BufferedInputStream (new FileInputStream (index)))) {
+            if ((in.readInt () != MAGIC) || (in.readInt () != VERSION) || (in.readLong () != fingerprint [0]) || (in.readLong () != fingerprint [1])) {
+                return null; //out of date
+            }
+
+            sheets = new BufferedImage [in.readInt ()];
+            for (int s = 0; s < sheets.length; s++) {
+                sheets [s] = ImageIO.read (new File (DIRECTORY, "sheet" + s + ".png"));
+                if (sheets [s] == null) {
+                    return null;
+                }
+            }
+
+            places = new int [in.readInt ()][];
+            result.frames = new BufferedImage [places.length];
+            result.hitboxes = new int [places.length][];
+            for (int i = 0; i < places.length; i++) {
+                int sheet = in.readShort (), x = in.readShort (), y = in.readShort (), width = in.readShort (), height = in.readShort ();
+
+                result.frames [i] = sheets [sheet].getSubimage (x, y, width, height);
+                result.hitboxes [i] = new int [] {in.readShort (), in.readShort (), in.readShort (), in.readShort ()};
+            }
+
+            for (int a = in.readInt (); a > 0; a--) {
+                String name = in.readUTF ();
+                int[] ids = new int [in.readShort ()];
+
+                for (int i = 0; i < ids.length; i++) {
+                    ids [i] = in.readShort ();
+                } result.animations.put (name, ids);
+            }
+        } return result;
+    }
+    /*
+     * pack places frames on shelves: each shelf is as tall as the first (tallest) frame put on it, and frames go left to
+     * right until the shelf is full. Every frame has to fit on a sheet by itself (build checks this).
+     * @param frames The frames to place.
+     * @param places Filled in with {sheet, x, y} for each frame.
+     * @return How many sheets were used.
+     */
+    private static int pack (ArrayList <BufferedImage> frames, int[][] places) {
+        Integer[] order = new Integer [frames.size ()];
+        int sheet = 0, x = 0, y = 0, shelfHeight = 0;
+
+        for (int i = 0; i < order.length; i++) {
+            order [i] = i;
+        }
+        Arrays.sort (order, new Comparator <Integer> () {
+            @Override public int compare (Integer a, Integer b) {
+                return frames.get (b).getHeight () - frames.get (a).getHeight ();
+            }
+        });
+
+        for (int i : order) {
+            BufferedImage frame = frames.get (i);
+
+            if (x + frame.getWidth () > SHEET_SIZE) { //next shelf
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            } if (y + frame.getHeight () > SHEET_SIZE) { //next sheet
+                sheet++;
+                x = 0;
+                y = 0;
+                shelfHeight = 0;
+            }
+
+            places [i] = new int [] {sheet, x, y};
+            x += frame.getWidth ();
+            shelfHeight = Math.max (shelfHeight, frame.getHeight ());
+        } return frames.isEmpty () ? 0 : sheet + 1;
+    }
+    /*
+     * findAnimations finds every folder with a 0.png in it, in a fixed order.
+     */
+    private static void findAnimations (File folder, ArrayList <File> found) {
+        File[] children = folder.listFiles ();
+
+        if (children == null) {
+            return;
+        }
+        Arrays.sort (children);
+        if (new File (folder, "0.png").isFile ()) {
+            found.add (folder);
+        }
+        for (File child : children) {
+            if (child.isDirectory ()) {
+                findAnimations (child, found);
+            }
+        }
+    }
+    /*
+     * countFrames counts the frames in an animation folder: 0.png, 1.png and so on until one is missing.
+     */
+    private static int countFrames (File folder) {
+        int count = 0;
+
+        while (new File (folder, count + ".png").isFile ()) {
+            count++;
+        } return count;
+    }
+    /*
+     * fingerprint sums up every PNG under SOURCE without reading them: how many there are, their total size, and when the
+     * newest one was changed. If any of those change, the atlas is built again.
+     * @return Two numbers that change whenever the images do.
+     */
+    private static long[] fingerprint () {
+        long[] result = new long [3]; //count, total size, newest change
+        fingerprint (SOURCE, result);
+        return new long [] {result [0] * 31 + result [2], result [1]};
+    }
+    /*
+     * fingerprint adds a folder's PNGs to a fingerprint.
+     */
+    private static void fingerprint (File folder, long[] result) {
+        File[] children = folder.listFiles ();
+
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory ()) {
+                fingerprint (child, result);
+            } else if (child.getName ().endsWith (".png")) {
+                result [0]++;
+                result [1] += child.length ();
+                result [2] = Math.max (result [2], child.lastModified ());
+            }
+        }
+    }
+    /*
+     * hash hashes a frame's size and pixels, so frames that look exactly the same get the same hash.
+     */
+    private static String hash (BufferedImage frame) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance ("SHA-256");
+            int[] row = new int [frame.getWidth ()];
+            byte[] bytes = new byte [row.length * 4];
+
+            digest.update (new byte [] {(byte) (frame.getWidth () >> 8), (byte) frame.getWidth (), (byte) (frame.getHeight () >> 8), (byte) frame.getHeight ()});
+            for (int y = 0; y < frame.getHeight (); y++) {
+                frame.getRGB (0, y, row.length, 1, row, 0, row.length);
+                for (int x = 0; x < row.length; x++) {
+                    bytes [x * 4] = (byte) (row [x] >>> 24);
+                    bytes [x * 4 + 1] = (byte) (row [x] >>> 16);
+                    bytes [x * 4 + 2] = (byte) (row [x] >>> 8);
+                    bytes [x * 4 + 3] = (byte) row [x];
+                } digest.update (bytes);
+            } return new BigInteger (1, digest.digest ()).toString (16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException (e); //every Java has SHA-256
+        }
+    }
+    /*
+     * countAll counts the frames in every animation.
+     */
+    private static int countAll (ArrayList <int[]> animationFrames) {
+        int count = 0;
+        for (int[] ids : animationFrames) {
+            count += ids.length;
+        } return count;
+    }
+    /*
+     * key turns a folder name into the form used in the index, e.g. "Images/Players/Left/run".
+     */
+    private static String key (String folder) {
+        return new File (folder).getPath ().replace (File.separatorChar, '/');
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * [AudioCommandQueue.java]
+ * This file contains the queue that carries sound commands from one thread to the mixer.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+/**
+ * An AudioCommandQueue carries commands (play this, stop that) from one thread to the AudioMixer's thread without
+ * either of them ever waiting. Exactly one thread may post to a queue and only the mixer takes from it, so which
+ * commands are waiting is kept by a RingIndex.
+ * <p>
+ * The commands are kept in parallel arrays that are made up front, so posting never allocates. If the mixer falls so
+ * far behind that the queue is full, the command is dropped instead of waiting.
+ * <p>
+ * Each queue remembers the thread that posts to it, so the mixer can let go of the queue once that thread has died.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+class AudioCommandQueue {
+    /** Play a sound on a voice. */
+    static final int PLAY = 0;
+    /** Stop every voice playing a sound. */
+    static final int STOP = 1;
+    /** Fade music in, and all other music out. */
+    static final int START_MUSIC = 2;
+    /** Fade music out. */
+    static final int STOP_MUSIC = 3;
+
+    /** How many commands can be waiting. A power of 2, so wrapping around is a mask. */
+    static final int CAPACITY = 256;
+
+    private int[] kinds = new int [CAPACITY];
+    private long[] times = new long [CAPACITY]; //System.nanoTime () when each was posted
+    private short[][] samples = new short [CAPACITY][];
+    private MusicStream[] streams = new MusicStream [CAPACITY];
+    private float[] gains = new float [CAPACITY];
+    private int[] counts = new int [CAPACITY]; //loops for PLAY, fade frames for the music commands
+    private int[] limits = new int [CAPACITY]; //max instances for PLAY
+
+    private RingIndex index = new RingIndex (CAPACITY);
+    private Thread owner; //the one thread that posts
+
+    /**
+     * This constructor makes an empty queue for a thread to post to.
+     * @param owner The thread that will post to it.
+     */
+    AudioCommandQueue (Thread owner) {
+        this.owner = owner;
+    }
+    /**
+     * isOwnerAlive checks if the thread that posts to the queue is still running. Once it isn't, nothing more can be
+     * posted.
+     * @return If the thread is alive.
+     */
+    boolean isOwnerAlive () {
+        return this.owner.isAlive ();
+    }
+    /**
+     * post adds a command to the queue. Only the queue's one poster may call this.
+     * @param kind PLAY, STOP, START_MUSIC or STOP_MUSIC.
+     * @param sound The sound to play or stop, or null.
+     * @param stream The music to start or stop, or null.
+     * @param gain How loud to play the sound.
+     * @param count How many more times to play the sound, or how many frames to fade the music over.
+     * @param limit How many times at once the sound can be playing.
+     * @return If it was added. False means the queue was full, so it was dropped.
+     */
+    boolean post (int kind, short[] sound, MusicStream stream, float gain, int count, int limit) {
+        int slot = this.index.slotToPost ();
+
+        if (slot < 0) {
+            return false;
+        }
+
+        this.kinds [slot] = kind;
+        this.times [slot] = System.nanoTime ();
+        this.samples [slot] = sound;
+        this.streams [slot] = stream;
+        this.gains [slot] = gain;
+        this.counts [slot] = count;
+        this.limits [slot] = limit;
+        this.index.publish (); //only now can the mixer see it
+        return true;
+    }
+    /**
+     * isEmpty checks if there is a command to take. Only the mixer calls this, and the ones below.
+     * @return If there are none.
+     */
+    boolean isEmpty () {
+        return this.index.isEmpty ();
+    }
+    /**
+     * kind returns the kind of the next command.
+     * @return PLAY, STOP, START_MUSIC or STOP_MUSIC.
+     */
+    int kind () {
+        return this.kinds [this.slot ()];
+    }
+    /**
+     * time returns when the next command was posted.
+     * @return The time, from System.nanoTime.
+     */
+    long time () {
+        return this.times [this.slot ()];
+    }
+    /**
+     * sound returns the sound of the next command.
+     * @return The sound, or null.
+     */
+    short[] sound () {
+        return this.samples [this.slot ()];
+    }
+    /**
+     * stream returns the music of the next command.
+     * @return The music, or null.
+     */
+    MusicStream stream () {
+        return this.streams [this.slot ()];
+    }
+    /**
+     * gain returns the gain of the next command.
+     * @return The gain.
+     */
+    float gain () {
+        return this.gains [this.slot ()];
+    }
+    /**
+     * count returns the loops or fade frames of the next command.
+     * @return The count.
+     */
+    int count () {
+        return this.counts [this.slot ()];
+    }
+    /**
+     * limit returns the max instances of the next command.
+     * @return The limit.
+     */
+    int limit () {
+        return this.limits [this.slot ()];
+    }
+    /**
+     * remove is done with the next command, so its slot can be posted to again.
+     */
+    void remove () {
+        int slot = this.slot ();
+
+        this.samples [slot] = null; //don't keep music alive
+        this.streams [slot] = null;
+        this.index.remove ();
+    }
+    /**
+     * getDropped returns how many commands were dropped because the queue was full.
+     * @return The number of commands.
+     */
+    int getDropped () {
+        return this.index.getDropped ();
+    }
+    /*
+     * slot returns where the next command to take is kept.
+     */
+    private int slot () {
+        return this.index.slotToTake ();
+    }
+}
+
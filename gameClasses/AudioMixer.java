@@ -0,0 +1,438 @@
+/*
+ * [AudioMixer.java]
+ * This file contains the class that mixes every sound the game plays into one output.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The AudioMixer plays every sound in the game through one AudioOutput. Sounds are decoded once into FORMAT (see
+ * decode) and kept as plain samples, which every voice playing that sound shares. A voice is one sound being played,
+ * with its own place in the sound and its own gain. There are only MAX_VOICES of them, made up front: when they are all
+ * busy, a new sound takes over (steals) the voice that has been playing the longest, and a sound that is already
+ * playing too many times over steals from itself first. Looping voices (music) are never stolen.
+ * <p>
+ * Music isn't played on a voice, since it would take far too much memory decoded. It is streamed from its file instead
+ * (see MusicStream) and mixed in with the voices. Starting music fades out whatever music was playing while the new
+ * music fades in.
+ * <p>
+ * Nothing outside the mixer's thread touches the voices or the music. Playing or stopping something only posts a
+ * command to the posting thread's own AudioCommandQueue, which the mixer empties before each block, so the game's
+ * threads never wait on the mixer (or on a sound card that has stopped taking sound). A new game loop thread is started
+ * for every level, so once a thread has died and its queue is empty, the queue is let go of.
+ * <p>
+ * The voices are mixed BLOCK_FRAMES at a time on the mixer's own thread, which then writes the block to the output.
+ * The output only holds BUFFERED_BLOCKS blocks, so a sound is heard about that long after it is played.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class AudioMixer {
+    /** The format everything is mixed in: 48 kHz, 16 bit, stereo. */
+    public static final AudioFormat FORMAT = new AudioFormat (48000, 16, 2, true, false);
+    /** How many frames (one sample for each channel) are mixed at a time. 480 frames are 10 ms. */
+    public static final int BLOCK_FRAMES = 480;
+    /** How many mixed blocks the output holds before it has to wait. */
+    public static final int BUFFERED_BLOCKS = 3;
+    /** How many sounds can be playing at once. */
+    public static final int MAX_VOICES = 16;
+
+    private static volatile AudioMixer mixer; //the game's mixer, started the first time it's needed
+
+    private AudioOutput output;
+    private Voice[] voices = new Voice [MAX_VOICES];
+    private ArrayList <MusicStream> music = new ArrayList <MusicStream> (); //the music playing, including any fading out
+    private long voicesStarted = 0; //how many voices have been started, which also tells which is oldest
+    private volatile int stolen = 0;  //how many voices were cut off to make room
+    private volatile int playing = 0; //how many voices were playing after the last block
+    private float[] mixed = new float [BLOCK_FRAMES * 2]; //the block being mixed, both channels
+    private byte[] block = new byte [BLOCK_FRAMES * 4];   //the block being written
+    private long lastBlockTime = 0; //when the last block was mixed, from System.nanoTime
+    private Thread thread;
+    private volatile boolean running = false;
+
+    private CopyOnWriteArrayList <AudioCommandQueue> queues = new CopyOnWriteArrayList <AudioCommandQueue> (); //one for every living thread that posts
+    private ThreadLocal <AudioCommandQueue> queue = new ThreadLocal <AudioCommandQueue> () {
+        @Override protected AudioCommandQueue initialValue () {
+            AudioCommandQueue made = new AudioCommandQueue (Thread.currentThread ());
+
+            queues.add (made);
+            return made;
+        }
+    };
+    private volatile int droppedByDead = 0; //commands dropped by queues that were let go of. Only the mixer's thread writes this
+    private volatile MusicStream currentMusic; //the music that was last started and not stopped, as far as the posters know
+
+    /*
+     * A Voice is one sound being played. Voices are reused, so playing a sound never allocates.
+     */
+    private static class Voice {
+        private short[] samples; //what is playing, or null if the voice is free
+        private int position;    //the next sample to mix
+        private int delay;       //how many frames into the next block it starts
+        private float gain;
+        private int loops;       //how many more times to play after this, or -1 to loop forever
+        private long age;        //when it started, in voices started
+    }
+
+    /**
+     * This constructor makes a mixer that will play through an output. Call start to open the output and start mixing.
+     * @param output Where the mixed sound goes.
+     */
+    AudioMixer (AudioOutput output) {
+        this.output = output;
+        for (int i = 0; i < MAX_VOICES; i++) {
+            this.voices [i] = new Voice ();
+        }
+    }
+    /**
+     * get returns the game's mixer, starting it the first time. This never waits on the sound card: the mixer's thread
+     * opens it, and plays through a NullAudioOutput instead if it can't.
+     * @return The mixer.
+     */
+    public static AudioMixer get () {
+        if (mixer == null) { //only lock the first time
+            synchronized (AudioMixer.class) {
+                if (mixer == null) {
+                    AudioMixer made = new AudioMixer (new LineAudioOutput ());
+
+                    made.start ();
+                    mixer = made;
+                }
+            }
+        } return mixer;
+    }
+    /**
+     * start starts the mixer's thread, which opens the output and then mixes and writes blocks until the mixer is closed.
+     * If the output can't be opened, the mixer plays through a NullAudioOutput instead.
+     */
+    public synchronized void start () {
+        if (this.running) {
+            return;
+        }
+        this.running = true;
+        this.thread = new Thread (new Runnable () {
+            @Override public void run () {
+                try {
+                    output.open (FORMAT, BUFFERED_BLOCKS * block.length);
+                } catch (LineUnavailableException e) {
+                    System.out.println ("Couldn't open the sound card, so nothing will be heard: " + e.getMessage ());
+                    NullAudioOutput nowhere = new NullAudioOutput ();
+
+                    nowhere.open (FORMAT, BUFFERED_BLOCKS * block.length);
+                    output = nowhere;
+                }
+
+                while (running) {
+                    mix ();
+                    output.write (block, block.length); //waits while the output is full
+                }
+            }
+        }, "Audio mixer");
+        this.thread.setDaemon (true); //don't keep the game open
+        this.thread.setPriority (Thread.MAX_PRIORITY); //a late block is a click
+        this.thread.start ();
+    }
+    /**
+     * close stops the mixer's thread and closes the output.
+     */
+    public void close () {
+        this.running = false;
+        if (this.thread != null) {
+            try {
+                this.thread.join (1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread ().interrupt ();
+            }
+        } this.output.close ();
+    }
+    /**
+     * play asks for a sound to be played on a free voice, stealing one if there are none. Like everything that changes
+     * what is playing, this only posts a command for the mixer's thread, so it never waits for the mixer or the sound
+     * card. The sound starts as long after this as the mixer's delay, however far through a block the mixer is.
+     * @param samples The sound, decoded by decode.
+     * @param gain How loud to play it: 1 is as loud as it was recorded.
+     * @param loops How many more times to play it after the first, or -1 to loop until it is stopped.
+     * @param maxInstances How many times at once this sound can be playing. If it already is, its oldest voice is reused.
+     */
+    public void play (short[] samples, float gain, int loops, int maxInstances) {
+        this.queue.get ().post (AudioCommandQueue.PLAY, samples, null, gain, loops, maxInstances);
+    }
+    /**
+     * stopAll asks for every voice playing a sound to be stopped.
+     * @param samples The sound.
+     */
+    public void stopAll (short[] samples) {
+        this.queue.get ().post (AudioCommandQueue.STOP, samples, null, 0, 0, 0);
+    }
+    /**
+     * startMusic starts streaming some music and asks for it to be faded in while every other piece of music fades out.
+     * If the queue is full, nothing happens: the stream is never started, and the music that was playing keeps playing.
+     * @param stream The music.
+     * @param fadeSeconds How long the fades take. 0 starts it right away and cuts the other music off.
+     */
+    public void startMusic (MusicStream stream, float fadeSeconds) {
+        if (!this.queue.get ().post (AudioCommandQueue.START_MUSIC, null, stream, 1, Math.round (fadeSeconds * FORMAT.getFrameRate ()), 0)) {
+            stream.close (); //dropped, so the mixer will never let go of it
+            return;
+        }
+        stream.start (); //here, so the mixer's thread doesn't have to start a thread. Until it's opened, the mixer hears silence
+        this.currentMusic = stream;
+    }
+    /**
+     * stopMusic asks for some music to be faded out. It is closed once it is silent.
+     * @param stream The music.
+     * @param fadeSeconds How long the fade takes. 0 cuts it off right away.
+     */
+    public void stopMusic (MusicStream stream, float fadeSeconds) {
+        if (this.currentMusic == stream) {
+            this.currentMusic = null;
+        }
+        this.queue.get ().post (AudioCommandQueue.STOP_MUSIC, null, stream, 0, Math.round (fadeSeconds * FORMAT.getFrameRate ()), 0);
+    }
+    /**
+     * isPlaying checks if some music is the music that was started last, and it hasn't been stopped or ended.
+     * @param stream The music.
+     * @return If it is.
+     */
+    public boolean isPlaying (MusicStream stream) {
+        return (this.currentMusic == stream) && (!stream.isFinished ());
+    }
+    /**
+     * getPlayingCount returns how many voices were playing after the last block was mixed, not counting music.
+     * @return The number of voices.
+     */
+    public int getPlayingCount () {
+        return this.playing;
+    }
+    /**
+     * getStolenCount returns how many voices were cut off so that another sound could play.
+     * @return The number of voices.
+     */
+    public int getStolenCount () {
+        return this.stolen;
+    }
+    /**
+     * getDroppedCount returns how many commands were dropped because the mixer was too far behind to take them.
+     * @return The number of commands.
+     */
+    public int getDroppedCount () {
+        int dropped = this.droppedByDead;
+
+        for (int i = 0; i < this.queues.size (); i++) {
+            dropped += this.queues.get (i).getDropped ();
+        } return dropped;
+    }
+    /**
+     * mix carries out the commands that were posted, then mixes the next block of every voice and the music into the
+     * block to be written, moving them all on. This is done by the mixer's thread, but can be called directly on a mixer
+     * that wasn't started. Nothing here locks or allocates, except when letting go of a dead thread's queue.
+     * @return The block, BLOCK_FRAMES frames in FORMAT. It is overwritten by the next call.
+     */
+    byte[] mix () {
+        long now = System.nanoTime ();
+        int count = 0;
+
+        for (int q = this.queues.size () - 1; q >= 0; q--) {
+            AudioCommandQueue commands = this.queues.get (q);
+            boolean dead = !commands.isOwnerAlive (); //checked first, so nothing can be posted after it's emptied
+
+            while (!commands.isEmpty ()) {
+                this.carryOut (commands);
+                commands.remove ();
+            } if (dead) {
+                this.droppedByDead = this.droppedByDead + commands.getDropped ();
+                this.queues.remove (q); //a new game loop is started for every level, so this would grow forever
+            }
+        }
+        this.lastBlockTime = now;
+
+        Arrays.fill (this.mixed, 0);
+        for (Voice voice : this.voices) {
+            int at = voice.delay * 2;
+
+            voice.delay = 0;
+            while ((voice.samples != null) && (at < this.mixed.length)) {
+                int length = Math.min (this.mixed.length - at, voice.samples.length - voice.position);
+                short[] samples = voice.samples;
+                float gain = voice.gain;
+
+                for (int i = 0; i < length; i++) {
+                    this.mixed [at + i] += samples [voice.position + i] * gain;
+                }
+                at += length;
+                voice.position += length;
+
+                if (voice.position >= samples.length) { //the end of the sound
+                    voice.position = 0;
+                    if (voice.loops == 0) {
+                        voice.samples = null;
+                    } else if (voice.loops > 0) {
+                        voice.loops--;
+                    }
+                }
+            } if (voice.samples != null) {
+                count++;
+            }
+        }
+        this.playing = count;
+
+        for (int i = this.music.size () - 1; i >= 0; i--) {
+            if (this.music.get (i).mixInto (this.mixed)) { //ended or faded out
+                this.music.remove (i).close ();
+            }
+        }
+
+        for (int i = 0; i < this.mixed.length; i++) { //clip, and write as little-endian 16 bit
+            int sample = Math.max (Short.MIN_VALUE, Math.min (Short.MAX_VALUE, Math.round (this.mixed [i])));
+
+            this.block [i * 2] = (byte) sample;
+            this.block [i * 2 + 1] = (byte) (sample >> 8);
+        } return this.block;
+    }
+    /*
+     * carryOut does the next command in a queue. Sounds start as far into this block as the command was posted after the
+     * last block was mixed, so every sound is heard the same time after it was played.
+     */
+    private void carryOut (AudioCommandQueue commands) {
+        int kind = commands.kind ();
+
+        if (kind == AudioCommandQueue.PLAY) {
+            long frames = (this.lastBlockTime == 0) ? 0 : (commands.time () - this.lastBlockTime) * (long) FORMAT.getFrameRate () / 1000000000L;
+
+            this.startVoice (commands.sound (), commands.gain (), commands.count (), commands.limit (), (int) Math.max (0, Math.min (BLOCK_FRAMES - 1, frames)));
+        } else if (kind == AudioCommandQueue.STOP) {
+            for (Voice voice : this.voices) {
+                if (voice.samples == commands.sound ()) {
+                    voice.samples = null;
+                }
+            }
+        } else if (kind == AudioCommandQueue.START_MUSIC) {
+            for (int i = 0; i < this.music.size (); i++) {
+                this.music.get (i).fadeTo (0, commands.count ());
+            }
+            commands.stream ().fadeTo (0, 0);
+            commands.stream ().fadeTo (commands.gain (), commands.count ());
+            this.music.add (commands.stream ());
+        } else if (kind == AudioCommandQueue.STOP_MUSIC) {
+            if (this.music.contains (commands.stream ())) {
+                commands.stream ().fadeTo (0, commands.count ());
+            } else {
+                commands.stream ().close (); //it never started (or already finished)
+            }
+        }
+    }
+    /*
+     * startVoice starts a sound on a free voice, stealing one if there are none.
+     * @param delay How many frames into the next block it starts.
+     */
+    private void startVoice (short[] samples, float gain, int loops, int maxInstances, int delay) {
+        Voice voice;
+        int free = -1, oldestSame = -1, oldest = -1, instances = 0, index;
+
+        if (samples.length == 0) {
+            return;
+        }
+
+        for (int i = 0; i < MAX_VOICES; i++) {
+            Voice v = this.voices [i];
+
+            if (v.samples == null) {
+                if (free < 0) {
+                    free = i;
+                }
+            } else if (v.loops == 0) { //only voices that will end can be stolen
+                if (v.samples == samples) {
+                    instances++;
+                    if ((oldestSame < 0) || (v.age < this.voices [oldestSame].age)) {
+                        oldestSame = i;
+                    }
+                } if ((oldest < 0) || (v.age < this.voices [oldest].age)) {
+                    oldest = i;
+                }
+            }
+        }
+
+        if ((instances >= maxInstances) && (oldestSame >= 0)) {
+            index = oldestSame;
+        } else {
+            index = (free >= 0) ? free : oldest;
+        }
+        if (index < 0) {
+            return;
+        }
+
+        voice = this.voices [index];
+        if (voice.samples != null) {
+            this.stolen = this.stolen + 1; //only this thread writes it
+        }
+        voice.samples = samples;
+        voice.position = 0;
+        voice.gain = gain;
+        voice.loops = loops;
+        voice.delay = delay;
+        voice.age = this.voicesStarted++;
+    }
+    /**
+     * decode reads a sound file into samples that can be played by the mixer: 16 bit stereo at FORMAT's rate, with the
+     * left and right samples of each frame one after the other. Mono sounds are played on both sides, and sounds
+     * recorded at another rate are resampled.
+     * @param file The sound file, e.g. a .wav.
+     * @return The samples.
+     * @throws IOException If the file can't be read.
+     * @throws UnsupportedAudioFileException If Java can't decode the file.
+     */
+    public static short[] decode (File file) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream encoded = AudioSystem.getAudioInputStream (file)) {
+            AudioFormat format = encoded.getFormat ();
+            int channels = format.getChannels ();
+            AudioFormat pcm = new AudioFormat (format.getSampleRate (), 16, channels, true, false);
+            byte[] bytes;
+            short[] samples;
+            double step = format.getSampleRate () / FORMAT.getSampleRate (); //how far to move through the file per frame
+            int frames;
+
+            try (AudioInputStream decoded = AudioSystem.getAudioInputStream (pcm, encoded)) {
+                bytes = decoded.readAllBytes ();
+            } catch (IllegalArgumentException e) { //Java can't turn it into plain samples
+                throw new UnsupportedAudioFileException (file + ": " + e.getMessage ());
+            }
+
+            frames = bytes.length / (2 * channels);
+            samples = new short [(int) (frames / step) * 2];
+            for (int f = 0; f < samples.length / 2; f++) {
+                double at = f * step;
+                int before = (int) at, after = Math.min (before + 1, frames - 1);
+                double fraction = at - before;
+
+                for (int c = 0; c < 2; c++) {
+                    int source = Math.min (c, channels - 1); //mono goes to both sides, anything past stereo is dropped
+                    int a = sample (bytes, before * channels + source), b = sample (bytes, after * channels + source);
+
+                    samples [f * 2 + c] = (short) Math.round (a + (b - a) * fraction);
+                }
+            } return samples;
+        }
+    }
+    /*
+     * sample reads a little-endian 16 bit sample.
+     */
+    private static int sample (byte[] bytes, int index) {
+        return (short) ((bytes [index * 2] & 0xFF) | (bytes [index * 2 + 1] << 8));
+    }
+}
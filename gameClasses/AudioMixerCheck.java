@@ -0,0 +1,186 @@
+/*
+ * [AudioMixerCheck.java]
+ * This file contains checks that the audio mixer mixes and steals voices the way it should, without a sound card.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.util.Arrays;
+
+/**
+ * AudioMixerCheck runs the AudioMixer against a NullAudioOutput and checks the blocks it mixes, so it can be run on a
+ * machine without a sound card. The mixer is never started: each check posts its sounds and then calls mix itself, so
+ * every sound starts at the beginning of the block and the results don't depend on timing. If a check fails, it says
+ * which one and exits with 1.
+ * Usage: <code>java gameClasses.AudioMixerCheck</code>
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class AudioMixerCheck {
+    private static int checks = 0; //how many checks have passed
+
+    /**
+     * main runs every check.
+     * @param args Ignored.
+     */
+    public static void main (String[] args) {
+        checkOneVoice ();
+        checkGainsAdd ();
+        checkClipping ();
+        checkMaxInstances ();
+        checkOldestStolen ();
+        checkLoopsNotStolen ();
+        System.out.println ("All " + checks + " audio mixer checks passed.");
+    }
+
+    /*
+     * checkOneVoice checks that one voice at full gain comes out exactly as it went in.
+     */
+    private static void checkOneVoice () {
+        AudioMixer mixer = newMixer ();
+        short[] sound = new short [AudioMixer.BLOCK_FRAMES * 2 * 3];
+        byte[] block;
+
+        for (int i = 0; i < sound.length; i++) {
+            sound [i] = (short) (i * 37 - 20000);
+        }
+        mixer.play (sound, 1, 0, Sound.MAX_INSTANCES);
+        for (int b = 0; b < 3; b++) {
+            block = mixer.mix ();
+            for (int i = 0; i < AudioMixer.BLOCK_FRAMES * 2; i++) {
+                if (sample (block, i) != sound [b * AudioMixer.BLOCK_FRAMES * 2 + i]) {
+                    fail ("one voice: block " + b + " sample " + i + " was " + sample (block, i) + ", not " + sound [b * AudioMixer.BLOCK_FRAMES * 2 + i]);
+                }
+            }
+        } checks++;
+        expect ("one voice ends with its sound", 0, mixer.getPlayingCount ());
+        expect ("one voice is silent after its sound", 0, sample (mixer.mix (), 0));
+    }
+    /*
+     * checkGainsAdd checks that two voices are added together, each at its own gain.
+     */
+    private static void checkGainsAdd () {
+        AudioMixer mixer = newMixer ();
+
+        mixer.play (constant (10000), 1, 0, Sound.MAX_INSTANCES);
+        mixer.play (constant (8000), 0.5f, 0, Sound.MAX_INSTANCES);
+        expectBlock ("two gains add", mixer.mix (), 14000);
+    }
+    /*
+     * checkClipping checks that voices that add up past what 16 bits can hold are clipped, not wrapped around.
+     */
+    private static void checkClipping () {
+        AudioMixer loud = newMixer (), quiet = newMixer ();
+
+        loud.play (constant (20000), 1, 0, Sound.MAX_INSTANCES);
+        loud.play (constant (20000), 1, 0, Sound.MAX_INSTANCES);
+        expectBlock ("clipped up", loud.mix (), Short.MAX_VALUE);
+
+        quiet.play (constant (-20000), 1, 0, Sound.MAX_INSTANCES);
+        quiet.play (constant (-20000), 1, 0, Sound.MAX_INSTANCES);
+        expectBlock ("clipped down", quiet.mix (), Short.MIN_VALUE);
+    }
+    /*
+     * checkMaxInstances checks that a sound played more than MAX_INSTANCES times at once takes its own oldest voice,
+     * even when other voices are free. Each play has its own gain, so the sum tells which voice was stolen.
+     */
+    private static void checkMaxInstances () {
+        AudioMixer mixer = newMixer ();
+        short[] sound = constant (100);
+
+        for (int i = 1; i <= Sound.MAX_INSTANCES + 1; i++) {
+            mixer.play (sound, i, 0, Sound.MAX_INSTANCES);
+        }
+        expectBlock ("its own oldest voice is stolen", mixer.mix (), 100 * (2 + 3 + 4 + 5));
+        expect ("instances playing", Sound.MAX_INSTANCES, mixer.getPlayingCount ());
+        expect ("voices stolen from itself", 1, mixer.getStolenCount ());
+    }
+    /*
+     * checkOldestStolen checks that when every voice is busy, a new sound takes the voice that has played the longest.
+     */
+    private static void checkOldestStolen () {
+        AudioMixer mixer = newMixer ();
+        int sum = 0;
+
+        for (int i = 1; i <= AudioMixer.MAX_VOICES; i++) { //each is its own sound, so none steal from themselves
+            mixer.play (constant (1), i, 0, AudioMixer.MAX_VOICES);
+            sum += i;
+        }
+        mixer.play (constant (1), 100, 0, AudioMixer.MAX_VOICES);
+        expectBlock ("the oldest voice is stolen", mixer.mix (), sum - 1 + 100);
+        expect ("voices playing", AudioMixer.MAX_VOICES, mixer.getPlayingCount ());
+        expect ("voices stolen", 1, mixer.getStolenCount ());
+    }
+    /*
+     * checkLoopsNotStolen checks that looping voices are never stolen: a new sound takes the only voice that will end,
+     * even though it's the newest, and is dropped if every voice loops.
+     */
+    private static void checkLoopsNotStolen () {
+        AudioMixer mixer = newMixer (), looping = newMixer ();
+
+        for (int i = 0; i < AudioMixer.MAX_VOICES - 1; i++) {
+            mixer.play (constant (1), 1, Sound.LOOP_CONTINUOUSLY, AudioMixer.MAX_VOICES);
+        }
+        mixer.play (constant (1), 2, 0, AudioMixer.MAX_VOICES);
+        mixer.play (constant (1), 100, 0, AudioMixer.MAX_VOICES);
+        expectBlock ("the only voice that ends is stolen", mixer.mix (), AudioMixer.MAX_VOICES - 1 + 100);
+        expect ("voices stolen among loops", 1, mixer.getStolenCount ());
+
+        for (int i = 0; i < AudioMixer.MAX_VOICES; i++) {
+            looping.play (constant (1), 1, Sound.LOOP_CONTINUOUSLY, AudioMixer.MAX_VOICES);
+        }
+        looping.play (constant (1), 100, 0, AudioMixer.MAX_VOICES);
+        expectBlock ("loops aren't stolen", looping.mix (), AudioMixer.MAX_VOICES);
+        expect ("voices stolen from loops", 0, looping.getStolenCount ());
+    }
+
+    /*
+     * newMixer makes a mixer that throws its sound away. It isn't started, so only the check mixes.
+     */
+    private static AudioMixer newMixer () {
+        return new AudioMixer (new NullAudioOutput (false));
+    }
+    /*
+     * constant makes a sound that is the same sample all the way through, two blocks long.
+     */
+    private static short[] constant (int value) {
+        short[] sound = new short [AudioMixer.BLOCK_FRAMES * 2 * 2];
+
+        Arrays.fill (sound, (short) value);
+        return sound;
+    }
+    /*
+     * sample reads a little-endian 16 bit sample out of a mixed block.
+     */
+    private static int sample (byte[] block, int index) {
+        return (short) ((block [index * 2] & 0xFF) | (block [index * 2 + 1] << 8));
+    }
+    /*
+     * expectBlock fails unless every sample in a block is the same value.
+     */
+    private static void expectBlock (String what, byte[] block, int value) {
+        for (int i = 0; i < AudioMixer.BLOCK_FRAMES * 2; i++) {
+            if (sample (block, i) != value) {
+                fail (what + ": sample " + i + " was " + sample (block, i) + ", not " + value);
+            }
+        } checks++;
+    }
+    /*
+     * expect fails unless a value is what it should be.
+     */
+    private static void expect (String what, long expected, long actual) {
+        if (expected != actual) {
+            fail (what + ": was " + actual + ", not " + expected);
+        } checks++;
+    }
+    /*
+     * fail says which check failed and exits.
+     */
+    private static void fail (String message) {
+        System.out.println ("FAILED " + message);
+        System.exit (1);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * [AudioOutput.java]
+ * This file contains the AudioOutput interface.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+
+/**
+ * The AudioOutput interface signifies that something can take the sound mixed by an AudioMixer. This is usually the
+ * sound card (LineAudioOutput), but it can also be nothing at all (NullAudioOutput), so the mixer still runs on machines
+ * without audio.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public interface AudioOutput {
+    /**
+     * Gets ready to take sound.
+     * @param format The format the sound will be in.
+     * @param bufferBytes How many bytes can be waiting to be heard. This is most of the delay before a sound is heard.
+     * @throws LineUnavailableException If the sound can't go anywhere.
+     */
+    public void open (AudioFormat format, int bufferBytes) throws LineUnavailableException;
+    /**
+     * Takes some sound, waiting until there is room for it. This is called on the mixer's thread.
+     * @param data The sound, in the format given to open.
+     * @param length How many bytes of data to take.
+     */
+    public void write (byte[] data, int length);
+    /**
+     * Stops taking sound and lets go of whatever was opened.
+     */
+    public void close ();
+}
@@ -16,5 +16,6 @@ package gameClasses;
 public class Border extends Entity {
     Border (int x, int y, int width, int height, String name, Stage stage) {
         super (x, y, new Sprite ("Images/Tiles/barrier", width, height), name, stage);
+        this.layer = Entity.BORDER_LAYER;
     }
 }
\ No newline at end of file
@@ -10,18 +10,32 @@ package gameClasses;
 
 import java.awt.Graphics;
 
-import java.awt.Rectangle;
-
 /**
  * Entity represents any sort of thing, with an x and y position and dimensions.
  * @author Andy Wang
  * @since 28 Dec 2018
  */
 public abstract class Entity {
-    private Rectangle rect; //for collision
+    /** The collision layer of Tiles. */
+    public static final int TILE_LAYER = 1;
+    /** The collision layer of Borders. */
+    public static final int BORDER_LAYER = 2;
+    /** The collision layer of Players. */
+    public static final int PLAYER_LAYER = 4;
+    /** The collision layer of Swords. */
+    public static final int SWORD_LAYER = 8;
+    /** Everything that stops a Player or a Sword from moving. */
+    public static final int SOLID_LAYERS = TILE_LAYER | BORDER_LAYER;
+    
+    private int rectX, rectY, rectWidth, rectHeight; //the collision box, kept as plain numbers so updating it never allocates
+    
+    /** The Entity's handle on its Stage, or -1 if it isn't on one. This never changes while the Entity is on the Stage. */
+    protected int handle = -1;
+    /** Which collision layer the Entity is on. */
+    protected int layer;
     
-    /* the sprite of the entity */
-    protected Sprite sprite; 
+    /** The Entity's sprite, and where it is in the sprite's animation. */
+    protected AnimationState animation;
     
     /** The stage that the Entity is drawn on. */
     protected Stage stage;
@@ -44,8 +58,8 @@ public abstract class Entity {
         this.x = x;
         this.y = y;
         this.name = this.getClass ().getName ();
-        this.sprite = spr;
-        this.rect = new Rectangle ((int) x, (int) y, this.sprite.getWidth (), this.sprite.getHeight ());
+        this.animation = new AnimationState (spr);
+        this.setRect ((int) x, (int) y, this.animation.getWidth (), this.animation.getHeight ());
         this.stage = stage;
     } 
     /**
@@ -60,8 +74,8 @@ public abstract class Entity {
         this.x = x;
         this.y = y;
         this.name = name;
-        this.sprite = spr;
-        this.rect = new Rectangle ((int) x, (int) y, this.sprite.getWidth (), this.sprite.getHeight ());
+        this.animation = new AnimationState (spr);
+        this.setRect ((int) x, (int) y, this.animation.getWidth (), this.animation.getHeight ());
         this.stage = stage;
     }
     /**
@@ -73,65 +87,160 @@ public abstract class Entity {
     Entity (Player player, Sprite spr, Stage stage) {
         this.x = player.x;
         this.y = player.y;
-        this.sprite = spr;
+        this.animation = new AnimationState (spr);
         this.stage = stage;
-        this.rect = new Rectangle ((int) x, (int) y, this.sprite.getWidth (), this.sprite.getHeight ());
+        this.setRect ((int) x, (int) y, this.animation.getWidth (), this.animation.getHeight ());
+    }
+    /**
+     * getRectX returns the x coordinate of the Entity's collision box.
+     * @return The left edge of the collision box.
+     */
+    public int getRectX () {
+        return this.rectX;
+    }
+    /**
+     * getRectY returns the y coordinate of the Entity's collision box.
+     * @return The top edge of the collision box.
+     */
+    public int getRectY () {
+        return this.rectY;
+    }
+    /**
+     * getRectWidth returns the width of the Entity's collision box.
+     * @return The width of the collision box.
+     */
+    public int getRectWidth () {
+        return this.rectWidth;
+    }
+    /**
+     * getRectHeight returns the height of the Entity's collision box.
+     * @return The height of the collision box.
+     */
+    public int getRectHeight () {
+        return this.rectHeight;
     }
     /**
-     * getRect returns the Entity's Rectangle, or bounding box to be used for collison detection.
-     * @return The Entity's Rectangle, or boundinf box.
+     * intersects checks if the Entity's collision box intersects a rectangle, the same way Rectangle.intersects would.
+     * @param x The x coordinate of the rectangle (top-left).
+     * @param y The y coordinate of the rectangle (top-left).
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @return If they intersect. Touching side by side doesn't count.
      */
-    public Rectangle getRect () {
-        return this.rect;
+    public boolean intersects (int x, int y, int width, int height) {
+        return (width > 0) && (height > 0) && (this.rectWidth > 0) && (this.rectHeight > 0)
+            && (x < this.rectX + this.rectWidth) && (this.rectX < x + width) && (y < this.rectY + this.rectHeight) && (this.rectY < y + height);
     }
     /**
-     * updateRect () updates an Entity's Rectangle object. This is called only in an Entity's step method, if it implements Moving.
+     * updateRect () updates an Entity's collision box in place. This is called only in an Entity's step method, if it implements Moving.
      */
     public void updateRect () {
-        int[] rectDimensions = this.sprite.getTightestDimensionsForCurrentFrame ();
-        this.rect = new Rectangle ((int) (this.x + rectDimensions [0]), (int) (this.y + rectDimensions [1]), rectDimensions [2], rectDimensions [3]);
+        int[] rectDimensions = this.animation.getTightestDimensions ();
+        this.setRect ((int) (this.x + rectDimensions [0]), (int) (this.y + rectDimensions [1]), rectDimensions [2], rectDimensions [3]);
+    }
+    /*
+     * setRect moves and resizes the collision box.
+     */
+    private void setRect (int x, int y, int width, int height) {
+        this.rectX = x;
+        this.rectY = y;
+        this.rectWidth = width;
+        this.rectHeight = height;
     }
     /**
-     * placeMeeting checks if the current Entity will collide with another Entity at the given coordinates.
+     * getHandle returns the Entity's handle on its Stage.
+     * @return The handle, or -1 if the Entity isn't on a Stage.
+     */
+    public int getHandle () {
+        return this.handle;
+    }
+    /**
+     * getLayer returns the Entity's collision layer.
+     * @return One of the _LAYER constants.
+     */
+    public int getLayer () {
+        return this.layer;
+    }
+    /**
+     * placeMeeting checks if the current Entity will collide with anything on the given collision layers at the given
+     * coordinates.
+     * @param xT The x coordinate to check for.
+     * @param yT The y corodinate to check for.
+     * @param mask The collision layers to check, e.g. Entity.TILE_LAYER | Entity.BORDER_LAYER.
+     * @return Whether another Entity on one of the layers is <b>intersecting</b> the current one. This will return false
+     * if they are simply side by side.
+     */
+    public boolean placeMeeting (double xT, double yT, int mask) {
+        return this.stage.meeting ((int) Math.round (xT), (int) Math.round (yT), this.animation.getWidth (), this.animation.getHeight (), mask, this);
+    }
+    /**
+     * placeMeeting checks if the current Entity will collide with a specific Entity at the given coordinates.
      * @param xT The x coordinate to check for.
      * @param yT The y corodinate to check for.
-     * @param n The names of the Entities to check for.
+     * @param other The Entity to check for.
      * @return Whether the other Entity is <b>intersecting</b> the current one. This will return false if they are
-     * simply side by side. Returns false if the Entity with the given name does not exist.
-     */
-    public boolean placeMeeting (double xT, double yT, String...n) {
-        Entity[] contents = this.stage.getContents ();
-        for (String name : n) {
-            /* Wondering why I don't use Stage's search method? That returns the FIRST instance of an Entity with the same name.
-             * This needs to search ALL the entities. */
-            for (Entity e : contents) {
-                if ((e.name.equals (name)) || (e.getClass ().getName ().equals (name))) {
-                    Rectangle tempRect = new Rectangle ((int) Math.round (xT), (int) Math.round (yT), this.sprite.getWidth (), this.sprite.getHeight ());
-                    
-                    if (tempRect.intersects (e.getRect ())) {
-                        return true;
-                    }
-                } 
-            }
-        } return false;
-    }
-    /**
-     * changeSprite changes the Entity's sprite and flips it accordingly. Does nothing if newSprite is already the Entity's sprite.
+     * simply side by side, or if other is null.
+     */
+    public boolean placeMeeting (double xT, double yT, Entity other) {
+        return (other != null) && (other.intersects ((int) Math.round (xT), (int) Math.round (yT), this.animation.getWidth (), this.animation.getHeight ()));
+    }
+    /**
+     * pixelMeeting checks if the current Entity's opaque pixels will touch the other Entity's opaque pixels at the given
+     * coordinates. This is placeMeeting against other, and then (only if that says yes) their HitMasks, so clear
+     * corners of a frame never count.
+     * @param xT The x coordinate to check for.
+     * @param yT The y coordinate to check for.
+     * @param other The Entity to check for.
+     * @return Whether any opaque pixel of the two Entities overlap. False if other is null.
+     */
+    public boolean pixelMeeting (double xT, double yT, Entity other) {
+        return (this.placeMeeting (xT, yT, other))
+            && (HitMask.overlaps (this.animation.getMask (), (int) Math.round (xT), (int) Math.round (yT),
+                                  other.animation.getMask (), (int) Math.round (other.x), (int) Math.round (other.y)));
+    }
+    /**
+     * sweepSolid slides the Entity towards the given coordinates, along one axis only, and finds how far it can get before
+     * it would intersect a Tile or a Border. It gives the same answer as moving 1 pixel at a time until placeMeeting says
+     * the next pixel collides, without the loop.
+     * @param xT The x coordinate to move towards.
+     * @param yT The y coordinate to move towards. Either xT or yT has to be the Entity's current coordinate.
+     * @return The Stage's Sweep, holding how many pixels the Entity can move and the normal of what it hit.
+     */
+    public Sweep sweepSolid (double xT, double yT) {
+        int width = this.animation.getWidth (), height = this.animation.getHeight ();
+        
+        if (xT != this.x) {
+            int from = (int) this.x;
+            int reach = Math.abs ((int) Math.round (xT) - from);
+            return this.stage.sweep (from, (int) Math.round (this.y), width, height, (int) Math.signum (xT - this.x) * reach, 0);
+        } else {
+            int from = (int) this.y;
+            int reach = Math.abs ((int) Math.round (yT) - from);
+            return this.stage.sweep ((int) Math.round (this.x), from, width, height, 0, (int) Math.signum (yT - this.y) * reach);
+        }
+    }
+    /**
+     * pushOut finds how far the Entity has to move in one direction to stop intersecting every Tile and Border.
+     * @param dx The direction to push in horizontally: -1, 0 or 1. Either dx or dy has to be 0.
+     * @param dy The direction to push in vertically: -1, 0 or 1.
+     * @return How many pixels to move. 0 if the Entity isn't stuck.
+     */
+    public int pushOut (int dx, int dy) {
+        return this.stage.pushOut ((int) Math.round (this.x), (int) Math.round (this.y), this.animation.getWidth (), this.animation.getHeight (), dx, dy);
+    }
+    /**
+     * changeSprite changes the Entity's sprite, starting it from its first frame and keeping it facing the same way. Does
+     * nothing if newSprite is already the Entity's sprite.
      * @param newSprite The sprite to change it to.
      */
     public void changeSprite (Sprite newSprite) { 
-        if (!this.sprite.equals (newSprite)) {
-            boolean flip = this.sprite.flipped;
-            this.sprite.frameIndex = 0;
-            this.sprite = newSprite;
-            this.sprite.flipped = flip;
-        }
+        this.animation.change (newSprite);
     }
     /**
      * The draw method draws the current Entity.
      * @param g The Graphics object to use.
      */
     public void draw (Graphics g) {
-        g.drawImage (this.sprite.currentImage, (int) Math.round (this.x), (int) Math.round (this.y), this.sprite.getWidth (), this.sprite.getHeight (), null);
+        g.drawImage (this.animation.getImage (), (int) Math.round (this.x), (int) Math.round (this.y), this.animation.getWidth (), this.animation.getHeight (), null);
     }
 }
\ No newline at end of file
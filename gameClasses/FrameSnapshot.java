@@ -0,0 +1,206 @@
+/*
+ * [FrameSnapshot.java]
+ * This file contains a picture of what a Level looked like after a tick.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Image;
+
+/**
+ * A FrameSnapshot is a copy of everything that needs to be drawn for one frame. The game loop fills one in after it steps
+ * the Level, and the renderer draws it whenever it gets around to it, so neither one has to wait for the other.
+ * Snapshots are reused instead of being made every frame: the arrays only grow when a Stage has more Entities than the
+ * snapshot has seen before, so filling one in doesn't allocate anything.
+ * <p>
+ * A snapshot also remembers how many ticks had been simulated when it was made, so the renderer can time the inputs
+ * those ticks used (see InputLatency) once the frame is actually on the screen.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class FrameSnapshot {
+    private static final Font FPS_FONT = new Font ("Arial", Font.PLAIN, 20);
+    private static final Font MESSAGE_FONT = new Font ("Arial", Font.ITALIC, 60);
+    private static final Font DIRECTION_FONT = new Font ("Arial", Font.PLAIN, 60);
+    private static final Color TIE_COLOR = new Color (255, 127, 0);
+    private static final Color WIN_COLOR = new Color (255, 0, 255);
+
+    private Image background; //the Stage's static layer: the background, Tiles and Borders
+    private int count = 0; //how many moving Entities are in the frame
+    private Image[] images = new Image [0]; //what each Entity looks like
+    private int[] xs = new int [0], ys = new int [0], widths = new int [0], heights = new int [0]; //where each Entity is drawn
+    private boolean tie; //if both players are dead
+    private String moveDirection = "";
+    private int tps; //ticks per second
+    private double tickMillis; //how long a tick takes to simulate
+    private long ticks; //how many ticks the Level had simulated
+    private InputLatency latency; //what inputs are timed with, or null
+
+    /**
+     * This constructor creates an empty snapshot. It draws nothing until it is filled in.
+     */
+    FrameSnapshot () {
+    }
+    /**
+     * capture copies what the Level's current Stage looks like right now into the snapshot. Only call this from the thread
+     * stepping the Level.
+     * @param level The Level to take a picture of.
+     * @param tps The number of ticks the simulation is running per second.
+     * @param tickMillis How many milliseconds it takes to simulate a tick.
+     */
+    public void capture (Level level, int tps, double tickMillis) {
+        Stage stage = level.getCurrentStage ();
+        Player leftPlayer = stage.getLeftPlayer ();
+        Player rightPlayer = stage.getRightPlayer ();
+
+        this.ensureCapacity (stage.getHandleCount ());
+        this.count = 0;
+        for (int i = 0; i < stage.getHandleCount (); i++) {
+            Entity e = stage.get (i);
+
+            if ((e != null) && (Stage.isDynamic (e))) { //Tiles and Borders are already in the static layer
+                this.images [this.count] = e.animation.getImage ();
+                this.xs [this.count] = (int) Math.round (e.x);
+                this.ys [this.count] = (int) Math.round (e.y);
+                this.widths [this.count] = e.animation.getWidth ();
+                this.heights [this.count] = e.animation.getHeight ();
+                this.count++;
+            }
+        }
+
+        this.background = stage.getStaticLayer ();
+        this.tie = (leftPlayer.isDead ()) && (rightPlayer.isDead ());
+        this.moveDirection = level.moveDirection;
+        this.tps = tps;
+        this.tickMillis = tickMillis;
+        this.ticks = level.getTicks ();
+        this.latency = level.getLatency ();
+    }
+    /**
+     * shown is called by the renderer once the frame is on the screen. It times every input used by the ticks in this
+     * frame that hasn't been timed yet, including ones from frames that were skipped. Showing the same frame again
+     * doesn't time anything twice.
+     * @param time When the frame was shown, from System.nanoTime.
+     */
+    public void shown (long time) {
+        if (this.latency != null) {
+            this.latency.shown (this.ticks, time);
+        }
+    }
+    /**
+     * copyFrom makes this snapshot the same as another one, for renderers that keep frames around after present returns.
+     * @param other The snapshot to copy.
+     */
+    public void copyFrom (FrameSnapshot other) {
+        this.ensureCapacity (other.count);
+        this.count = other.count;
+        System.arraycopy (other.images, 0, this.images, 0, other.count);
+        System.arraycopy (other.xs, 0, this.xs, 0, other.count);
+        System.arraycopy (other.ys, 0, this.ys, 0, other.count);
+        System.arraycopy (other.widths, 0, this.widths, 0, other.count);
+        System.arraycopy (other.heights, 0, this.heights, 0, other.count);
+
+        this.background = other.background;
+        this.tie = other.tie;
+        this.moveDirection = other.moveDirection;
+        this.tps = other.tps;
+        this.tickMillis = other.tickMillis;
+        this.ticks = other.ticks;
+        this.latency = other.latency;
+    }
+    /*
+     * ensureCapacity makes sure the snapshot has room for a number of Entities. Only this ever allocates.
+     * @param size The number of Entities.
+     */
+    private void ensureCapacity (int size) {
+        if (this.images.length < size) {
+            this.images = new Image [size];
+            this.xs = new int [size];
+            this.ys = new int [size];
+            this.widths = new int [size];
+            this.heights = new int [size];
+        }
+    }
+    /**
+     * getBackground returns the part of the frame that never moves: the Stage's background with its Tiles and Borders.
+     * @return The static layer.
+     */
+    public Image getBackground () {
+        return this.background;
+    }
+    /**
+     * getTPS returns how many ticks per second were being simulated when the frame was made.
+     * @return The ticks per second.
+     */
+    public int getTPS () {
+        return this.tps;
+    }
+    /**
+     * getTicks returns how many ticks the Level had simulated when the frame was made.
+     * @return The number of ticks.
+     */
+    public long getTicks () {
+        return this.ticks;
+    }
+    /**
+     * getLatency returns what the inputs used by this frame are timed with.
+     * @return The timings, or null if nothing is timed.
+     */
+    public InputLatency getLatency () {
+        return this.latency;
+    }
+    /**
+     * getTickMillis returns how long a tick took to simulate when the frame was made.
+     * @return The time per tick in milliseconds.
+     */
+    public double getTickMillis () {
+        return this.tickMillis;
+    }
+    /**
+     * draw draws the frame.
+     * @param g The Graphics object to use.
+     * @param counter The frame counter to show in the corner.
+     */
+    public void draw (Graphics g, String counter) {
+        g.drawImage (this.background, 0, 0, null);
+        this.drawForeground (g, counter);
+    }
+    /**
+     * drawForeground draws everything in the frame except for the static layer.
+     * @param g The Graphics object to use.
+     * @param counter The frame counter to show in the corner.
+     */
+    public void drawForeground (Graphics g, String counter) {
+        for (int i = 0; i < this.count; i++) {
+            g.drawImage (this.images [i], this.xs [i], this.ys [i], this.widths [i], this.heights [i], null);
+        }
+
+        g.setFont (FPS_FONT);
+        g.setColor (Color.GREEN);
+        g.drawString (counter, 20, 40);
+
+        if (this.tie) { //check for tie first
+            g.setFont (MESSAGE_FONT);
+            g.setColor (TIE_COLOR);
+            g.drawString ("TIE!", (PlatformerGame.WIDTH / 2) - 100, PlatformerGame.HEIGHT / 2);
+        } else if (this.moveDirection.equals (Level.WIN_MESSAGE)) {
+            g.setFont (MESSAGE_FONT);
+            g.setColor (WIN_COLOR);
+            g.drawString (Level.WIN_MESSAGE, (PlatformerGame.WIDTH / 2) - 500, PlatformerGame.HEIGHT / 2);
+        } else if (!this.moveDirection.equals ("")) {
+            g.setFont (DIRECTION_FONT);
+            g.setColor (Color.WHITE);
+            g.drawString ("GO " + this.moveDirection, 10, PlatformerGame.HEIGHT - 40);
+        }
+        
+        if ((this.latency != null) && (this.latency.isOverlayShown ())) {
+            this.latency.draw (g);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * [GameLoop.java]
+ * This file contains the thread that runs the game's simulation.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * GameLoop steps a Level at a fixed tick rate on its own thread, so that the simulation never waits for Swing to paint
+ * and the Swing thread never has to sleep. After every batch of ticks, the Level publishes a FrameSnapshot for the
+ * renderer to draw.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class GameLoop implements Runnable {
+    /** The default number of simulation ticks per second. */
+    public static final int DEFAULT_TICK_RATE = 120;
+
+    private static final double MAX_FRAME_TIME = 0.25; //if we fall further behind than this (in seconds), just drop the time
+
+    private Level level;
+    private Thread thread;
+    private volatile boolean running = false;
+
+    private double tickLength; //seconds per tick
+
+    /**
+     * This constructor creates a game loop for a level.
+     * @param level The Level to step.
+     * @param tickRate How many times per second the Level is stepped.
+     */
+    GameLoop (Level level, int tickRate) {
+        this.level = level;
+        this.tickLength = 1.0 / tickRate;
+    }
+    /**
+     * getTickLength returns how much time passes in one tick.
+     * @return The length of a tick in seconds.
+     */
+    public double getTickLength () {
+        return this.tickLength;
+    }
+    /**
+     * start starts stepping the level on a new thread. Does nothing if the loop is already running.
+     */
+    public void start () {
+        if (this.running) {
+            return;
+        }
+        this.running = true;
+        this.thread = new Thread (this, "Game Loop");
+        this.thread.setDaemon (true);
+        this.thread.start ();
+    }
+    /**
+     * stop stops the loop and waits for the current tick to finish, so that the level can safely be changed afterwards.
+     */
+    public void stop () {
+        this.running = false;
+
+        if ((this.thread != null) && (this.thread != Thread.currentThread ())) {
+            LockSupport.unpark (this.thread);
+            try {
+                this.thread.join ();
+            } catch (InterruptedException e) {
+                Thread.currentThread ().interrupt ();
+            }
+        } this.thread = null;
+    }
+    /**
+     * isRunning checks if the loop is currently stepping the level.
+     * @return If the loop is running.
+     */
+    public boolean isRunning () {
+        return this.running;
+    }
+    /**
+     * run advances the level by whole ticks for however much time has actually passed (the accumulator), then hands a
+     * snapshot of the result to the renderer and waits for the next tick to be due.
+     */
+    @Override public void run () {
+        long previous = System.nanoTime ();
+        double accumulator = 0;
+
+        while (this.running) {
+            long current = System.nanoTime ();
+            double frameTime = (current - previous) * 0.000000001;
+            boolean stepped = false;
+            previous = current;
+
+            /* Spiral of death: if a tick ever takes longer than it simulates, don't try to catch up forever */
+            accumulator += Math.min (frameTime, MAX_FRAME_TIME);
+
+            while ((this.running) && (accumulator >= this.tickLength)) {
+                this.level.tick (this.tickLength);
+                accumulator -= this.tickLength;
+                stepped = true;
+            }
+
+            if (stepped) {
+                this.level.publishFrame ();
+            }
+
+            /* Sleep until the next tick is due */
+            LockSupport.parkNanos ((long) ((this.tickLength - accumulator) * 1000000000L));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * [HeadlessMatch.java]
+ * This file contains a way to simulate a match without a screen.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * HeadlessMatch runs a Level as fast as the CPU allows, with no window, no Swing and no sound. Inputs come from a script
+ * instead of the keyboard. Each line of the script is <code>tick press|release keyCode</code>, in order of tick, and
+ * lines starting with # are ignored. This is used for batch simulation and balance testing.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class HeadlessMatch {
+    private Level level;
+    private double tickLength; //seconds per tick
+    private long ticks = 0; //how many ticks have been simulated
+
+    /**
+     * This constructor loads a level without its backgrounds.
+     * @param levelName The name of the level ("Castle", "Forest" or "Mountains").
+     * @param tickRate How many ticks make up one second of game time.
+     * @throws IOException If the level can't be loaded.
+     */
+    HeadlessMatch (String levelName, int tickRate) throws IOException {
+        this.level = new Level (levelName, false);
+        this.tickLength = 1.0 / tickRate;
+    }
+    /**
+     * getLevel returns the level being simulated.
+     * @return The level.
+     */
+    public Level getLevel () {
+        return this.level;
+    }
+    /**
+     * getTicks returns how many ticks have been simulated so far.
+     * @return The number of ticks.
+     */
+    public long getTicks () {
+        return this.ticks;
+    }
+    /**
+     * isOver checks if someone has won the match.
+     * @return If the match has a winner.
+     */
+    public boolean isOver () {
+        return this.level.moveDirection.equals (Level.WIN_MESSAGE);
+    }
+    /**
+     * tick simulates one tick of the match.
+     */
+    public void tick () {
+        this.level.tick (this.tickLength);
+        this.ticks++;
+    }
+    /**
+     * run simulates the match until someone wins or the tick limit is reached, feeding in inputs from a script.
+     * @param script The input script to read, or null for no inputs.
+     * @param maxTicks The most ticks to simulate.
+     * @throws IOException If the script can't be read.
+     */
+    public void run (BufferedReader script, long maxTicks) throws IOException {
+        String[] next = nextEvent (script);
+
+        while ((this.ticks < maxTicks) && (!this.isOver ())) {
+            /* Apply every input due at this tick */
+            while ((next != null) && (Long.parseLong (next [0]) <= this.ticks)) {
+                int keyCode = Integer.parseInt (next [2]);
+
+                if (next [1].equals ("press")) {
+                    this.level.pressKey (keyCode);
+                } else {
+                    this.level.releaseKey (keyCode);
+                }
+                next = nextEvent (script);
+            }
+            this.tick ();
+        }
+    }
+    /*
+     * nextEvent reads the next input from a script.
+     * @param script The script to read from.
+     * @return The tick, "press" or "release", and the key code of the input. null if there are no more inputs.
+     */
+    private static String[] nextEvent (BufferedReader script) throws IOException {
+        String line;
+
+        if (script == null) {
+            return null;
+        }
+
+        while ((line = script.readLine ()) != null) {
+            line = line.trim ();
+            if ((!line.isEmpty ()) && (!line.startsWith ("#"))) {
+                return line.split ("\\s+");
+            }
+        } return null;
+    }
+    /**
+     * main simulates a match from the command line and prints how it went.
+     * Usage: <code>java gameClasses.HeadlessMatch level ticks [script|-]</code>, where - reads the script from standard input.
+     * @param args The level name, the most ticks to simulate, and optionally the input script.
+     * @throws IOException If the script can't be read.
+     */
+    public static void main (String[] args) throws IOException {
+        HeadlessMatch match;
+        BufferedReader script = null;
+        long start, elapsed;
+
+        if (args.length < 2) {
+            System.out.println ("Usage: java gameClasses.HeadlessMatch <Castle|Forest|Mountains> <ticks> [script|-]");
+            return;
+        }
+
+        /* Nothing here should need a screen or a sound card */
+        System.setProperty ("java.awt.headless", "true");
+        if (System.getProperty ("sound") == null) {
+            System.setProperty ("sound", "off");
+        }
+
+        match = new HeadlessMatch (args [0], Integer.getInteger ("tickRate", GameLoop.DEFAULT_TICK_RATE));
+        if (args.length > 2) {
+            script = new BufferedReader (args [2].equals ("-") ? new InputStreamReader (System.in) : new FileReader (args [2]));
+        }
+
+        start = System.nanoTime ();
+        match.run (script, Long.parseLong (args [1]));
+        elapsed = System.nanoTime () - start;
+
+        if (script != null) {
+            script.close ();
+        }
+
+        System.out.println ("Ticks: " + match.getTicks () + " in " + (elapsed / 1000000) + " ms ("
+                            + (long) (match.getTicks () / (elapsed * 0.000000001)) + " ticks per second)");
+        System.out.println ("Stage: " + match.getLevel ().getStageIndex () + ", "
+                            + (match.isOver () ? "someone won" : "no winner yet"));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * [HitMask.java]
+ * This file contains the class for the shape of a frame, one bit per pixel.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+/**
+ * A HitMask is the exact shape of a frame: one bit for every pixel, set if the pixel isn't fully clear. Each row is kept
+ * in longs, 64 pixels to a long (pixel x is bit x % 64 of long x / 64), so checking two frames against each other is a
+ * few ANDs per row instead of looking at every pixel. Masks are made once, when the frames are loaded.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class HitMask {
+    private int width, height;
+    private int words; //how many longs each row takes
+    private long[] bits; //every row, one after the other
+
+    /**
+     * This constructor makes the mask of a frame, or of the frame mirrored left to right.
+     * @param alphas The alpha of every pixel of the frame, row after row (see ImageLoader.getAlphas), or null if every
+     * pixel is opaque.
+     * @param width The width of the frame.
+     * @param height The height of the frame.
+     * @param mirror Whether to make the mask of the frame flipped left to right.
+     */
+    HitMask (byte[] alphas, int width, int height, boolean mirror) {
+        this.width = width;
+        this.height = height;
+        this.words = (width + 63) / 64;
+        this.bits = new long [this.words * height];
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if ((alphas == null) || (alphas [y * width + x] != 0)) {
+                    int column = mirror ? width - 1 - x : x;
+                    this.bits [y * this.words + (column >> 6)] |= 1L << (column & 63);
+                }
+            }
+        }
+    }
+    /**
+     * getWidth returns the width of the mask.
+     * @return The width, in pixels.
+     */
+    public int getWidth () {
+        return this.width;
+    }
+    /**
+     * getHeight returns the height of the mask.
+     * @return The height, in pixels.
+     */
+    public int getHeight () {
+        return this.height;
+    }
+    /**
+     * isSet checks if a pixel of the mask is set.
+     * @param x The x coordinate of the pixel.
+     * @param y The y coordinate of the pixel.
+     * @return If the pixel is in the mask. Pixels outside of it never are.
+     */
+    public boolean isSet (int x, int y) {
+        return (x >= 0) && (y >= 0) && (x < this.width) && (y < this.height) && ((this.bits [y * this.words + (x >> 6)] >>> (x & 63)) & 1) != 0;
+    }
+    /**
+     * overlaps checks if two masks share a set pixel when they are placed at the given positions. The rectangles the
+     * masks fill are checked first, so masks that are nowhere near each other cost almost nothing. Otherwise, only the
+     * rows and columns where they cross are looked at, 64 pixels at a time.
+     * @param a The first mask.
+     * @param ax The x coordinate of a's top-left corner.
+     * @param ay The y coordinate of a's top-left corner.
+     * @param b The second mask.
+     * @param bx The x coordinate of b's top-left corner.
+     * @param by The y coordinate of b's top-left corner.
+     * @return If any pixel is set in both masks.
+     */
+    public static boolean overlaps (HitMask a, int ax, int ay, HitMask b, int bx, int by) {
+        int left = Math.max (ax, bx), right = Math.min (ax + a.width, bx + b.width); //where they cross, right and bottom exclusive
+        int top = Math.max (ay, by), bottom = Math.min (ay + a.height, by + b.height);
+
+        if ((left >= right) || (top >= bottom)) {
+            return false;
+        }
+
+        for (int y = top; y < bottom; y++) {
+            int aRow = (y - ay) * a.words, bRow = (y - by) * b.words;
+
+            for (int x = left; x < right; x += 64) {
+                long both = a.bitsAt (aRow, x - ax) & b.bitsAt (bRow, x - bx);
+
+                if (right - x < 64) { //don't count pixels past where they cross
+                    both &= (1L << (right - x)) - 1;
+                }
+                if (both != 0) {
+                    return true;
+                }
+            }
+        } return false;
+    }
+    /*
+     * bitsAt returns the 64 pixels of a row starting at a column, shifted down so the column is bit 0. Pixels past the end
+     * of the row are 0.
+     */
+    private long bitsAt (int row, int column) {
+        int word = column >> 6, shift = column & 63;
+        long result = this.bits [row + word] >>> shift;
+
+        if ((shift != 0) && (word + 1 < this.words)) {
+            result |= this.bits [row + word + 1] << (64 - shift);
+        } return result;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * [HitMaskCheck.java]
+ * This file contains checks that HitMasks match the frames they were made from, pixel for pixel.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.awt.image.BufferedImage;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * HitMaskCheck loads a few animations and checks their HitMasks against the frames themselves, read with getRGB. Every
+ * pixel of every mask (and mirrored mask) has to be set exactly when the frame's pixel isn't fully clear. Then pairs of
+ * frames are placed at random near each other, and HitMask.overlaps has to agree with checking every pixel where they
+ * cross. The random placements are the same every run. If a check fails, it says which one and exits with 1.
+ * Usage: <code>java gameClasses.HitMaskCheck [placements]</code>
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class HitMaskCheck {
+    /* Animations with different sizes, shapes and widths past 64 pixels */
+    private static final String[] FOLDERS = {"Images/Sword/flying", "Images/Players/Left/run", "Images/Players/Right/highSwing",
+                                             "Images/Players/Left/attackLow", "Images/Tiles/Castle/ground"};
+
+    private static int checks = 0; //how many checks have passed
+
+    private static ArrayList <BufferedImage> frames = new ArrayList <BufferedImage> ();
+    private static ArrayList <HitMask> masks = new ArrayList <HitMask> ();
+    private static ArrayList <HitMask> mirroredMasks = new ArrayList <HitMask> ();
+
+    /**
+     * main loads the frames and runs every check.
+     * @param args How many random placements to try (200000 if not given).
+     */
+    public static void main (String[] args) {
+        int count = (args.length > 0) ? Integer.parseInt (args [0]) : 200000;
+
+        for (String folder : FOLDERS) {
+            SpriteFrames loaded = new SpriteFrames (folder);
+
+            for (int i = 0; i < loaded.images.length; i++) {
+                if (loaded.images [i] != null) {
+                    frames.add (loaded.images [i]);
+                    masks.add (loaded.masks [i]);
+                    mirroredMasks.add (loaded.mirroredMasks [i]);
+                }
+            }
+        }
+        if (frames.isEmpty ()) {
+            fail ("no frames were loaded from " + String.join (", ", FOLDERS));
+        }
+
+        checkPixels ();
+        checkOverlaps (count);
+        System.out.println ("All " + checks + " hit mask checks passed (" + frames.size () + " frames, " + count + " placements).");
+    }
+
+    /*
+     * checkPixels checks that every pixel of every mask is set exactly when the frame's pixel isn't fully clear, and that
+     * nothing outside a mask is set.
+     */
+    private static void checkPixels () {
+        for (int i = 0; i < frames.size (); i++) {
+            BufferedImage frame = frames.get (i);
+            int width = frame.getWidth (), height = frame.getHeight ();
+
+            if ((masks.get (i).getWidth () != width) || (masks.get (i).getHeight () != height)) {
+                fail ("frame " + i + ": the mask is " + masks.get (i).getWidth () + "x" + masks.get (i).getHeight () + ", not " + width + "x" + height);
+            }
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (masks.get (i).isSet (x, y) != isOpaque (frame, x, y, false)) {
+                        fail ("frame " + i + ": mask pixel (" + x + ", " + y + ") is wrong");
+                    } else if (mirroredMasks.get (i).isSet (x, y) != isOpaque (frame, x, y, true)) {
+                        fail ("frame " + i + ": mirrored mask pixel (" + x + ", " + y + ") is wrong");
+                    }
+                }
+            }
+            if ((masks.get (i).isSet (-1, 0)) || (masks.get (i).isSet (width, 0)) || (masks.get (i).isSet (0, height))) {
+                fail ("frame " + i + ": a pixel outside the mask is set");
+            }
+        } checks++;
+    }
+    /*
+     * checkOverlaps places random pairs of frames, either way round, so that their rectangles usually cross, and checks
+     * HitMask.overlaps against every pixel where they cross.
+     */
+    private static void checkOverlaps (int count) {
+        Random random = new Random (1);
+        int overlapping = 0;
+
+        for (int k = 0; k < count; k++) {
+            int i = random.nextInt (frames.size ()), j = random.nextInt (frames.size ());
+            boolean aMirrored = random.nextBoolean (), bMirrored = random.nextBoolean ();
+            BufferedImage a = frames.get (i), b = frames.get (j);
+            int ax = random.nextInt (300), ay = random.nextInt (300);
+            int bx = ax + random.nextInt (2 * Math.max (a.getWidth (), b.getWidth ())) - b.getWidth ();
+            int by = ay + random.nextInt (2 * Math.max (a.getHeight (), b.getHeight ())) - b.getHeight ();
+            boolean expected = false;
+
+            for (int y = Math.max (ay, by); (y < Math.min (ay + a.getHeight (), by + b.getHeight ())) && (!expected); y++) {
+                for (int x = Math.max (ax, bx); (x < Math.min (ax + a.getWidth (), bx + b.getWidth ())) && (!expected); x++) {
+                    expected = (isOpaque (a, x - ax, y - ay, aMirrored)) && (isOpaque (b, x - bx, y - by, bMirrored));
+                }
+            }
+
+            if (HitMask.overlaps (aMirrored ? mirroredMasks.get (i) : masks.get (i), ax, ay,
+                                  bMirrored ? mirroredMasks.get (j) : masks.get (j), bx, by) != expected) {
+                fail ("frames " + i + (aMirrored ? " (mirrored)" : "") + " at " + ax + "," + ay + " and " + j + (bMirrored ? " (mirrored)" : "")
+                      + " at " + bx + "," + by + " should" + (expected ? "" : "n't") + " overlap");
+            } else if (expected) {
+                overlapping++;
+            }
+        }
+        if (overlapping == 0) { //otherwise the check proves nothing
+            fail ("none of the " + count + " placements overlapped");
+        } checks++;
+    }
+
+    /*
+     * isOpaque checks if a pixel of a frame isn't fully clear, reading it with getRGB.
+     */
+    private static boolean isOpaque (BufferedImage frame, int x, int y, boolean mirrored) {
+        return (frame.getRGB (mirrored ? frame.getWidth () - 1 - x : x, y) >>> 24) != 0;
+    }
+    /*
+     * fail says which check failed and exits.
+     */
+    private static void fail (String message) {
+        System.out.println ("FAILED " + message);
+        System.exit (1);
+    }
+}
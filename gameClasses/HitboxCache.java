@@ -0,0 +1,139 @@
+/*
+ * [HitboxCache.java]
+ * This file contains the class that remembers the collision box of every frame between launches.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.awt.image.BufferedImage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.math.BigInteger;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HitboxCache remembers the collision box of every frame, so they don't have to be measured pixel by pixel every time
+ * the game starts. Each box is kept under the SHA-256 hash of the frame's file, so a frame that is changed (or added)
+ * is measured again and everything else is reused. The boxes are saved in Atlas/hitboxes.bin, which isn't committed.
+ * <p>
+ * Change VERSION whenever ImageLoader.getTightestDimensions starts measuring differently, so old boxes are thrown out.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class HitboxCache {
+    /** Where the boxes are saved. */
+    public static final File FILE = new File (Atlas.DIRECTORY, "hitboxes.bin");
+
+    private static final int MAGIC = 0x48424F58; //"HBOX"
+    private static final int VERSION = 1;
+
+    private static ConcurrentHashMap <String, int[]> hitboxes; //file hash -> {x, y, width, height}, read the first time it's needed
+    private static volatile boolean changed = false; //if anything was measured since the last save
+    private static AtomicInteger measured = new AtomicInteger (); //how many frames had to be measured
+
+    /**
+     * get returns the collision box of a frame, measuring it only if the frame's file hasn't been seen before.
+     * @param file The frame's file.
+     * @param frame The frame, exactly as it was decoded from file.
+     * @return A new array of {x, y, width, height}.
+     * @throws IOException If the file can't be read.
+     */
+    public static int[] get (File file, BufferedImage frame) throws IOException {
+        String hash = hash (Files.readAllBytes (file.toPath ()));
+        int[] hitbox = table ().get (hash);
+
+        if (hitbox == null) {
+            hitbox = ImageLoader.getTightestDimensions (frame);
+            hitboxes.put (hash, hitbox);
+            measured.incrementAndGet ();
+            changed = true;
+        } return hitbox.clone ();
+    }
+    /**
+     * save writes the boxes to FILE, if any were measured since they were last saved. The file is written beside FILE
+     * first and then moved over it, so a half-written file is never read.
+     */
+    public static synchronized void save () {
+        File temporary = new File (FILE.getPath () + ".tmp");
+        HashMap <String, int[]> saving;
+
+        if (!changed) {
+            return;
+        } changed = false;
+        saving = new HashMap <String, int[]> (hitboxes); //frames can still be measured while it's being written
+
+        FILE.getParentFile ().mkdirs ();
+        try {
+            try (DataOutputStream out = new DataOutputStream (new BufferedOutputStream (new FileOutputStream (temporary)))) {
+                out.writeInt (MAGIC);
+                out.writeInt (VERSION);
+                out.writeInt (saving.size ());
+                for (Map.Entry <String, int[]> entry : saving.entrySet ()) {
+                    out.writeUTF (entry.getKey ());
+                    for (int value : entry.getValue ()) {
+                        out.writeShort (value);
+                    }
+                }
+            } Files.move (temporary.toPath (), FILE.toPath (), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println ("Couldn't save the hitboxes, they'll be measured again next time: " + e.getMessage ());
+        }
+    }
+    /**
+     * getMeasuredCount returns how many frames weren't in the cache and had to be measured.
+     * @return The number of frames.
+     */
+    public static int getMeasuredCount () {
+        return measured.get ();
+    }
+    /*
+     * table returns the boxes, reading them from FILE the first time. A missing, broken or old file is just ignored.
+     */
+    private static synchronized ConcurrentHashMap <String, int[]> table () {
+        if (hitboxes == null) {
+            hitboxes = new ConcurrentHashMap <String, int[]> ();
+            if (FILE.exists ()) {
+                try (DataInputStream in = new DataInputStream (new BufferedInputStream (new FileInputStream (FILE)))) {
+                    if ((in.readInt () == MAGIC) && (in.readInt () == VERSION)) {
+                        for (int i = in.readInt (); i > 0; i--) {
+                            hitboxes.put (in.readUTF (), new int [] {in.readShort (), in.readShort (), in.readShort (), in.readShort ()});
+                        }
+                    }
+                } catch (IOException e) {
+                    hitboxes.clear (); //start over, it'll be saved properly next time
+                }
+            }
+        } return hitboxes;
+    }
+    /*
+     * hash hashes the bytes of a file.
+     */
+    private static String hash (byte[] bytes) {
+        try {
+            return new BigInteger (1, MessageDigest.getInstance ("SHA-256").digest (bytes)).toString (16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException (e); //every Java has SHA-256
+        }
+    }
+}
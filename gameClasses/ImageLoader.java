@@ -0,0 +1,308 @@
+/*
+ * [ImageLoader.java]
+ * This file contains the class that loads images in a format the screen can draw quickly.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import javax.imageio.ImageIO;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DirectColorModel;
+import java.awt.image.WritableRaster;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ImageLoader turns decoded images into the same format as the screen. ImageIO often gives back formats (like 3-byte BGR
+ * or palettes) that Java2D can't copy to the screen on the accelerated path, so every frame and background goes through
+ * here once when it is loaded. Each image gets the least transparency it needs: opaque, on/off (bitmask), or
+ * translucent. Without a screen (headless), images are left the way they are.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class ImageLoader {
+    private static final GraphicsConfiguration CONFIG = GraphicsEnvironment.isHeadless () ? null
+        : GraphicsEnvironment.getLocalGraphicsEnvironment ().getDefaultScreenDevice ().getDefaultConfiguration ();
+
+    private static AtomicInteger loaded = new AtomicInteger (); //how many images have been converted
+    private static AtomicInteger unaccelerated = new AtomicInteger (); //how many of them aren't in the screen's format
+
+    /**
+     * read decodes an image file and converts it to the screen's format.
+     * @param file The image to read.
+     * @return The converted image.
+     * @throws IOException If the file can't be read or isn't an image.
+     */
+    public static BufferedImage read (File file) throws IOException {
+        BufferedImage image = ImageIO.read (file);
+
+        if (image == null) {
+            throw new IOException ("Not an image: " + file);
+        } return toCompatible (image);
+    }
+    /**
+     * toCompatible converts an image to the screen's format, with the least transparency it needs.
+     * @param image The image to convert.
+     * @return The converted image, or image itself if it is already compatible or there is no screen.
+     */
+    public static BufferedImage toCompatible (BufferedImage image) {
+        int transparency = transparencyOf (image);
+        BufferedImage compatible;
+
+        if ((CONFIG == null) || (image.getColorModel ().equals (CONFIG.getColorModel (transparency)))) {
+            compatible = image;
+        } else {
+            compatible = createCompatible (image.getWidth (), image.getHeight (), transparency);
+            copy (image, compatible, false);
+        }
+
+        count (compatible, transparency);
+        return compatible;
+    }
+    /**
+     * mirrored makes a copy of an image flipped left to right, in the screen's format.
+     * @param image The image to mirror.
+     * @return The mirrored image, or null if image is null.
+     */
+    public static BufferedImage mirrored (BufferedImage image) {
+        int transparency;
+        BufferedImage mirror;
+
+        if (image == null) {
+            return null;
+        }
+
+        transparency = transparencyOf (image);
+        mirror = createCompatible (image.getWidth (), image.getHeight (), transparency);
+        copy (image, mirror, true);
+        count (mirror, transparency);
+        return mirror;
+    }
+    /**
+     * createCompatible makes a blank image in the screen's format. Without a screen, it makes a plain RGB or ARGB image.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param transparency Transparency.OPAQUE, BITMASK or TRANSLUCENT.
+     * @return The blank image.
+     */
+    public static BufferedImage createCompatible (int width, int height, int transparency) {
+        if (CONFIG == null) {
+            return new BufferedImage (width, height, (transparency == Transparency.OPAQUE) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        } return CONFIG.createCompatibleImage (width, height, transparency);
+    }
+    /**
+     * transparencyOf works out the least transparency an image needs by looking at the alpha of every pixel.
+     * @param image The image to check.
+     * @return Transparency.OPAQUE if every pixel is opaque, BITMASK if every pixel is either opaque or fully clear,
+     * otherwise TRANSLUCENT.
+     */
+    public static int transparencyOf (BufferedImage image) {
+        int[] row;
+        boolean clear = false;
+
+        if (!image.getColorModel ().hasAlpha ()) {
+            return Transparency.OPAQUE;
+        }
+
+        row = new int [image.getWidth ()];
+        for (int y = 0; y < image.getHeight (); y++) {
+            image.getRGB (0, y, row.length, 1, row, 0, row.length);
+            for (int pixel : row) {
+                int alpha = pixel >>> 24;
+
+                if (alpha == 0) {
+                    clear = true;
+                } else if (alpha != 0xFF) {
+                    return Transparency.TRANSLUCENT;
+                }
+            }
+        } return clear ? Transparency.BITMASK : Transparency.OPAQUE;
+    }
+    /**
+     * getTightestDimensions returns the rectangle whose dimensions bound the opaque pixels of a frame.
+     * Said rectangle must reach all the way to the bottom of the image. The right edge is the x of the rightmost opaque
+     * pixel (not one past it), and if nothing is opaque the rectangle is 0 wide and as tall as the image.
+     * @param bi The image (frame of sprite) on which to calculate the tightest bounding rectangle.
+     * @return The dimensions of the rectangle bounding all the opaque pixels (essentially trimmed).
+     */
+    public static int[] getTightestDimensions (BufferedImage bi) {
+        int width = bi.getWidth (), height = bi.getHeight ();
+        AlphaRows alphas = new AlphaRows (bi);
+        int top = -1, left = width, right = -1;
+
+        if (!bi.getColorModel ().hasAlpha ()) { //every pixel is opaque
+            return new int[] {0, 0, width - 1, height};
+        }
+
+        /* One pass, top to bottom, only looking at the parts of each row that could still move an edge */
+        for (int y = 0; y < height; y++) {
+            alphas.seek (y, 0, left);
+            for (int x = 0; x < left; x++) {
+                if (alphas.get (x) != 0) {
+                    left = x;
+                    break;
+                }
+            }
+            alphas.seek (y, right + 1, width);
+            for (int x = width - 1; x > right; x--) {
+                if (alphas.get (x) != 0) {
+                    right = x;
+                    break;
+                }
+            }
+            if ((top < 0) && (right >= 0)) { //the first row with anything opaque in it
+                top = y;
+            }
+        }
+
+        if (top < 0) { //nothing is opaque
+            return new int[] {0, 0, 0, height};
+        } return new int[] {left, top, right - left, height - top};
+    }
+    /**
+     * getAlphas reads the alpha of every pixel of an image, row after row, the same way getTightestDimensions does. It is
+     * called once per frame, on whichever thread is loading it.
+     * @param image The image to read.
+     * @return The alphas (0 is fully clear), width * height of them, or null if the image has no alpha.
+     */
+    static byte[] getAlphas (BufferedImage image) {
+        int width = image.getWidth (), height = image.getHeight ();
+        AlphaRows rows;
+        byte[] alphas;
+
+        if (!image.getColorModel ().hasAlpha ()) {
+            return null;
+        }
+
+        alphas = new byte [width * height];
+        rows = new AlphaRows (image);
+        for (int y = 0; y < height; y++) {
+            rows.seek (y, 0, width);
+            for (int x = 0; x < width; x++) {
+                alphas [y * width + x] = (byte) rows.get (x);
+            }
+        } return alphas;
+    }
+    /**
+     * getLoadedCount returns how many images have been converted so far.
+     * @return The number of images.
+     */
+    public static int getLoadedCount () {
+        return loaded.get ();
+    }
+    /**
+     * getUnacceleratedCount returns how many of the converted images still aren't in the screen's format, so copying them
+     * to the screen won't be accelerated. This should be 0 whenever there is a screen.
+     * @return The number of unaccelerated images.
+     */
+    public static int getUnacceleratedCount () {
+        return unaccelerated.get ();
+    }
+    /**
+     * report describes how many images were loaded and how many of them aren't accelerated.
+     * @return A line to print.
+     */
+    public static String report () {
+        return "Loaded " + getLoadedCount () + " images, " + getUnacceleratedCount () + " unaccelerated"
+            + ((CONFIG == null) ? " (no screen)" : "");
+    }
+    /*
+     * copy draws one image onto another, replacing its pixels (alpha included), optionally flipped left to right.
+     */
+    private static void copy (BufferedImage from, BufferedImage to, boolean mirror) {
+        Graphics2D g = to.createGraphics ();
+
+        g.setComposite (AlphaComposite.Src);
+        if (mirror) {
+            g.drawImage (from, from.getWidth (), 0, -from.getWidth (), from.getHeight (), null); //draw it with a negative width
+        } else {
+            g.drawImage (from, 0, 0, null);
+        } g.dispose ();
+    }
+    /*
+     * count remembers that an image was converted, and whether it ended up in the screen's format.
+     */
+    private static void count (BufferedImage image, int transparency) {
+        loaded.incrementAndGet ();
+        if ((CONFIG == null) || (!image.getColorModel ().equals (CONFIG.getColorModel (transparency)))) {
+            unaccelerated.incrementAndGet ();
+        }
+    }
+
+    /*
+     * AlphaRows reads the alphas of an image one row at a time. Packed ints (like ARGB) and interleaved bytes (like the
+     * ABGR that PNGs decode to) are copied out a row at a time with getDataElements, which is much faster than getRGB,
+     * since that converts the colour of every pixel. The raster's data array itself is never taken, since that would stop
+     * Java2D from managing (caching) the image for the rest of the game. Anything else (like palettes) goes through
+     * getRGB, a row at a time.
+     */
+    private static class AlphaRows {
+        private BufferedImage image;
+        private WritableRaster raster;
+        private int[] ints;    //the current row, if it's packed ints
+        private byte[] bytes;  //the current row, if it's interleaved bytes
+        private int[] row;     //the current row, if it's neither
+        private int shift;     //how far the alpha is shifted up in a packed int
+        private int bands;     //how many bytes each pixel has, if it's interleaved bytes. Alpha is the last one
+        private int from;      //the x of the first pixel in the current row
+
+        AlphaRows (BufferedImage image) {
+            ColorModel colors = image.getColorModel ();
+            int width = image.getWidth ();
+
+            this.image = image;
+            this.raster = image.getRaster ();
+            if ((colors instanceof DirectColorModel) && (colors.hasAlpha ()) && (colors.getTransferType () == DataBuffer.TYPE_INT)
+                    && (Integer.bitCount (((DirectColorModel) colors).getAlphaMask ()) == 8)) {
+                this.ints = new int [width];
+                this.shift = Integer.numberOfTrailingZeros (((DirectColorModel) colors).getAlphaMask ());
+            } else if ((colors instanceof ComponentColorModel) && (colors.hasAlpha ()) && (colors.getTransferType () == DataBuffer.TYPE_BYTE)) {
+                this.bands = colors.getNumComponents ();
+                this.bytes = new byte [width * this.bands];
+            } else {
+                this.row = new int [width];
+            }
+        }
+        /*
+         * seek moves to part of row y, from pixel from up to (but not including) pixel to. Only those pixels are copied.
+         */
+        void seek (int y, int from, int to) {
+            this.from = from;
+            if (from >= to) {
+                return;
+            } else if (this.ints != null) {
+                this.raster.getDataElements (from, y, to - from, 1, this.ints);
+            } else if (this.bytes != null) {
+                this.raster.getDataElements (from, y, to - from, 1, this.bytes);
+            } else {
+                this.image.getRGB (from, y, to - from, 1, this.row, 0, this.row.length);
+            }
+        }
+        /*
+         * get returns the alpha of pixel x in the current row, from 0 (clear) to 255. x has to be in the part seek copied.
+         */
+        int get (int x) {
+            x -= this.from;
+            if (this.ints != null) {
+                return (this.ints [x] >>> this.shift) & 0xFF;
+            } else if (this.bytes != null) {
+                return this.bytes [x * this.bands + this.bands - 1] & 0xFF;
+            } return this.row [x] >>> 24;
+        }
+    }
+}
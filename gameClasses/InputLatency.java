@@ -0,0 +1,191 @@
+/*
+ * [InputLatency.java]
+ * This file contains the timings of how long key presses take to show up on the screen.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * InputLatency times every key press and release from when the key listener got it until the first frame it could have
+ * changed was shown. Each input is stamped when the Level is given it, stamped again when the tick that used it starts,
+ * and finished when the renderer shows the first frame made after that tick (frames the renderer skips don't count). The
+ * three stamps give three histograms: how long inputs waited for a tick, how long a tick took to get to the screen, and
+ * the two together.
+ * <p>
+ * Inputs wait between their tick and their frame in a ring (see RingIndex), like InputQueue's: the game loop adds them
+ * and the renderer's thread takes them, without either one waiting. If too many are waiting, the rest aren't timed.
+ * <p>
+ * The histograms can be drawn over the game (see FrameSnapshot.drawForeground) and written to a file, so changes to the
+ * renderer can be measured instead of guessed at.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class InputLatency {
+    private static final Font FONT = new Font ("Arial", Font.PLAIN, 16);
+    private static final Color BACKGROUND = new Color (0, 0, 0, 160);
+    private static final int BARS = 100; //one bar per millisecond, up to 100 ms
+    private static final int BUCKETS_PER_BAR = (int) (1000000 / LatencyHistogram.BUCKET_NANOS);
+    private static final int BAR_WIDTH = 4, CHART_HEIGHT = 80;
+    private static final int OVERLAY_WIDTH = 460, OVERLAY_HEIGHT = CHART_HEIGHT + 90;
+    private static final int X = PlatformerGame.WIDTH - OVERLAY_WIDTH - 20, Y = 60; //where the chart starts
+    private static final int PENDING = 256; //how many inputs can wait to be shown. A power of 2, so wrapping around is a mask
+
+    private LatencyHistogram waiting = new LatencyHistogram ("input to tick");
+    private LatencyHistogram showing = new LatencyHistogram ("tick to screen");
+    private LatencyHistogram total = new LatencyHistogram ("input to screen");
+    private volatile boolean overlayShown = false;
+
+    /* Inputs that have been used by a tick, but not shown yet */
+    private long[] inputTimes = new long [PENDING], tickTimes = new long [PENDING], ticks = new long [PENDING];
+    private RingIndex pending = new RingIndex (PENDING); //the game loop posts, the renderer takes
+
+    /* Only the thread drawing the overlay touches these */
+    private String[] labels = {"", "", ""};
+    private long labelsBuilt; //when the labels were last rebuilt, so drawing doesn't allocate every frame
+
+    /**
+     * This constructor creates empty timings.
+     */
+    InputLatency () {
+    }
+    /**
+     * used remembers that a tick used an input, so it can be timed once the tick is shown. This is called by the Level, on
+     * the game loop's thread.
+     * @param inputTime When the input was given to the Level, from System.nanoTime.
+     * @param tickTime When the tick that used it started.
+     * @param tick Which tick used it: how many ticks the Level had simulated before it.
+     */
+    public void used (long inputTime, long tickTime, long tick) {
+        int slot = this.pending.slotToPost ();
+
+        if (slot < 0) { //nothing is being shown, so don't time it
+            return;
+        }
+
+        this.inputTimes [slot] = inputTime;
+        this.tickTimes [slot] = tickTime;
+        this.ticks [slot] = tick;
+        this.pending.publish (); //only now can the renderer see it
+    }
+    /**
+     * shown times every input used by a tick in a frame that was just shown. This is called by the renderer.
+     * @param ticks How many ticks had been simulated when the frame was made.
+     * @param shownTime When the frame was shown, from System.nanoTime.
+     */
+    public void shown (long ticks, long shownTime) {
+        while ((!this.pending.isEmpty ()) && (this.ticks [this.pending.slotToTake ()] < ticks)) {
+            int slot = this.pending.slotToTake ();
+
+            this.waiting.add (this.tickTimes [slot] - this.inputTimes [slot]);
+            this.showing.add (shownTime - this.tickTimes [slot]);
+            this.total.add (shownTime - this.inputTimes [slot]);
+            this.pending.remove (); //only after reading, so the game loop doesn't write over it first
+        }
+    }
+    /**
+     * clearPending forgets the inputs that haven't been shown yet, e.g. when switching levels. Only call this while the
+     * game loop is stopped and nothing is being shown.
+     */
+    public void clearPending () {
+        this.pending.clear ();
+    }
+    /**
+     * reset forgets every input timed so far.
+     */
+    public void reset () {
+        this.waiting.reset ();
+        this.showing.reset ();
+        this.total.reset ();
+    }
+    /**
+     * getTotal returns the histogram of how long inputs took from the key listener to the screen.
+     * @return The histogram.
+     */
+    public LatencyHistogram getTotal () {
+        return this.total;
+    }
+    /**
+     * isOverlayShown checks if the histograms are being drawn over the game.
+     * @return If they are.
+     */
+    public boolean isOverlayShown () {
+        return this.overlayShown;
+    }
+    /**
+     * toggleOverlay shows the histograms over the game if they weren't, and hides them if they were.
+     */
+    public void toggleOverlay () {
+        this.overlayShown = !this.overlayShown;
+    }
+    /**
+     * export writes every histogram to a file, replacing it.
+     * @param file The file to write.
+     * @throws IOException If the file can't be written.
+     */
+    public void export (File file) throws IOException {
+        PrintWriter out = new PrintWriter (new FileWriter (file));
+
+        try {
+            out.println ("# Input latency in milliseconds: bucket start, count");
+            for (LatencyHistogram h : new LatencyHistogram[] {this.total, this.waiting, this.showing}) {
+                out.println ();
+                h.write (out);
+            }
+        } finally {
+            out.close ();
+        } if (out.checkError ()) {
+            throw new IOException ("Couldn't write " + file);
+        }
+    }
+    /**
+     * draw draws the histogram of input to screen times as a bar chart, with a summary of each histogram under it.
+     * @param g The Graphics object to use.
+     */
+    public void draw (Graphics g) {
+        long now = System.nanoTime ();
+        int most = 1;
+
+        if (now - this.labelsBuilt > 250000000) {
+            LatencyHistogram[] histograms = {this.total, this.waiting, this.showing};
+
+            for (int i = 0; i < histograms.length; i++) {
+                LatencyHistogram h = histograms [i];
+
+                this.labels [i] = String.format ("%s: %d  p50 %.1f  p99 %.1f  max %.1f ms", h.getName (), h.getCount (),
+                                                 h.getPercentileMillis (50), h.getPercentileMillis (99), h.getMaxMillis ());
+            }
+            this.labelsBuilt = now;
+        }
+
+        for (int i = 0; i < BARS; i++) {
+            most = Math.max (most, this.total.getCount (i * BUCKETS_PER_BAR, (i + 1) * BUCKETS_PER_BAR));
+        }
+
+        g.setColor (BACKGROUND);
+        g.fillRect (X - 10, Y - 10, OVERLAY_WIDTH, OVERLAY_HEIGHT);
+        g.setColor (Color.GREEN);
+        for (int i = 0; i < BARS; i++) {
+            int height = this.total.getCount (i * BUCKETS_PER_BAR, (i + 1) * BUCKETS_PER_BAR) * CHART_HEIGHT / most;
+
+            g.fillRect (X + i * BAR_WIDTH, Y + CHART_HEIGHT - height, BAR_WIDTH - 1, height);
+        }
+
+        g.setFont (FONT);
+        g.setColor (Color.WHITE);
+        for (int i = 0; i < this.labels.length; i++) {
+            g.drawString (this.labels [i], X, Y + CHART_HEIGHT + 20 + i * 20);
+        }
+    }
+}
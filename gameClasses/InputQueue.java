@@ -0,0 +1,108 @@
+/*
+ * [InputQueue.java]
+ * This file contains the queue that carries key presses from Swing to the game loop.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+/**
+ * An InputQueue carries key presses and releases from the thread that sees them (Swing's, or a HeadlessMatch's script)
+ * to the thread that steps the Level, which takes them all at the start of each tick. The Players are only ever
+ * changed by the thread stepping them, so they never see a key change halfway through a tick, and the same inputs on
+ * the same ticks always play out the same way.
+ * <p>
+ * Exactly one thread may post and only the Level takes, so, like AudioCommandQueue, which inputs are waiting is kept by
+ * a RingIndex and the two never wait for each other. Every input is kept with when it happened (System.nanoTime). The inputs are
+ * kept in arrays made up front, so posting never allocates. If the game loop falls so far behind that the queue is
+ * full, the input is dropped instead of waiting.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+class InputQueue {
+    /** How many inputs can be waiting. A power of 2, so wrapping around is a mask. */
+    static final int CAPACITY = 256;
+
+    private long[] times = new long [CAPACITY]; //System.nanoTime () when each happened
+    private int[] keyCodes = new int [CAPACITY];
+    private boolean[] presses = new boolean [CAPACITY]; //true for a press, false for a release
+
+    private RingIndex index = new RingIndex (CAPACITY);
+
+    /**
+     * post adds an input to the queue. Only the queue's one poster may call this.
+     * @param time When it happened, from System.nanoTime.
+     * @param keyCode The key code of the key.
+     * @param pressed True if the key was pressed, false if it was released.
+     * @return If it was added. False means the queue was full, so it was dropped.
+     */
+    boolean post (long time, int keyCode, boolean pressed) {
+        int slot = this.index.slotToPost ();
+
+        if (slot < 0) {
+            return false;
+        }
+
+        this.times [slot] = time;
+        this.keyCodes [slot] = keyCode;
+        this.presses [slot] = pressed;
+        this.index.publish (); //only now can the taker see it
+        return true;
+    }
+    /**
+     * isEmpty checks if there is an input to take. Only the taker calls this, and the ones below.
+     * @return If there are none.
+     */
+    boolean isEmpty () {
+        return this.index.isEmpty ();
+    }
+    /**
+     * time returns when the next input happened.
+     * @return The time, from System.nanoTime.
+     */
+    long time () {
+        return this.times [this.slot ()];
+    }
+    /**
+     * keyCode returns the key of the next input.
+     * @return The key code.
+     */
+    int keyCode () {
+        return this.keyCodes [this.slot ()];
+    }
+    /**
+     * isPress checks if the next input is a press.
+     * @return True for a press, false for a release.
+     */
+    boolean isPress () {
+        return this.presses [this.slot ()];
+    }
+    /**
+     * remove is done with the next input, so its slot can be posted to again.
+     */
+    void remove () {
+        this.index.remove ();
+    }
+    /**
+     * clear throws away every input that hasn't been taken. Only call this while nothing is taking inputs (e.g. when
+     * the game loop is stopped).
+     */
+    void clear () {
+        this.index.clear ();
+    }
+    /**
+     * getDropped returns how many inputs were dropped because the queue was full.
+     * @return The number of inputs.
+     */
+    int getDropped () {
+        return this.index.getDropped ();
+    }
+    /*
+     * slot returns where the next input to take is kept.
+     */
+    private int slot () {
+        return this.index.slotToTake ();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * [LatencyHistogram.java]
+ * This file contains a histogram of how long something took.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.io.PrintWriter;
+
+import java.util.Arrays;
+
+/**
+ * A LatencyHistogram counts how many times something took each quarter of a millisecond, up to 200 ms. Anything longer
+ * goes in one last bucket, but the longest time is still kept exactly. Adding a time never allocates, so it can be done
+ * every frame. It can be added to on one thread and read on another.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class LatencyHistogram {
+    /** How long each bucket is, in nanoseconds. */
+    public static final long BUCKET_NANOS = 250000;
+    /** How many buckets there are before the one for anything longer. */
+    public static final int BUCKETS = 800;
+
+    private String name;
+    private int[] counts = new int [BUCKETS + 1];
+    private long count = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+
+    /**
+     * This constructor creates an empty histogram.
+     * @param name What is being timed, e.g. "input to screen".
+     */
+    LatencyHistogram (String name) {
+        this.name = name;
+    }
+    /**
+     * getName returns what is being timed.
+     * @return The name of the histogram.
+     */
+    public String getName () {
+        return this.name;
+    }
+    /**
+     * add counts one more time.
+     * @param nanos How long it took, in nanoseconds.
+     */
+    public synchronized void add (long nanos) {
+        nanos = Math.max (0, nanos);
+        this.counts [(int) Math.min (nanos / BUCKET_NANOS, BUCKETS)]++;
+        this.count++;
+        this.totalNanos += nanos;
+        this.maxNanos = Math.max (this.maxNanos, nanos);
+    }
+    /**
+     * reset forgets every time counted so far.
+     */
+    public synchronized void reset () {
+        Arrays.fill (this.counts, 0);
+        this.count = 0;
+        this.totalNanos = 0;
+        this.maxNanos = 0;
+    }
+    /**
+     * getCount returns how many times have been counted.
+     * @return The number of times.
+     */
+    public synchronized long getCount () {
+        return this.count;
+    }
+    /**
+     * getCount returns how many times fell in some of the buckets.
+     * @param from The first bucket.
+     * @param to The bucket after the last one.
+     * @return The number of times.
+     */
+    public synchronized int getCount (int from, int to) {
+        int sum = 0;
+
+        for (int i = Math.max (0, from); i < Math.min (to, BUCKETS + 1); i++) {
+            sum += this.counts [i];
+        } return sum;
+    }
+    /**
+     * getMeanMillis returns the average time.
+     * @return The average in milliseconds, or 0 if nothing has been counted.
+     */
+    public synchronized double getMeanMillis () {
+        if (this.count == 0) {
+            return 0;
+        } return this.totalNanos * 0.000001 / this.count;
+    }
+    /**
+     * getMaxMillis returns the longest time.
+     * @return The longest time in milliseconds.
+     */
+    public synchronized double getMaxMillis () {
+        return this.maxNanos * 0.000001;
+    }
+    /**
+     * getPercentileMillis returns how long it took at most, for a share of the times. The answer is rounded up to the end
+     * of its bucket (but is never more than the longest time).
+     * @param percent The share of the times, from 0 to 100, e.g. 99 for the 99th percentile.
+     * @return The time in milliseconds, or 0 if nothing has been counted.
+     */
+    public synchronized double getPercentileMillis (double percent) {
+        long wanted = (long) Math.ceil (this.count * percent / 100);
+        long seen = 0;
+
+        if (this.count == 0) {
+            return 0;
+        }
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts [i];
+            if (seen >= Math.max (1, wanted)) {
+                return Math.min ((i + 1) * BUCKET_NANOS, this.maxNanos) * 0.000001;
+            }
+        } return this.getMaxMillis (); //it's in the last bucket
+    }
+    /**
+     * write writes the histogram out as text: a summary line, then one line per bucket that isn't empty, with where the
+     * bucket starts in milliseconds and how many times fell in it.
+     * @param out Where to write it.
+     */
+    public synchronized void write (PrintWriter out) {
+        out.println ("# " + this.name);
+        out.println (String.format ("# count %d  mean %.2f ms  p50 %.2f ms  p90 %.2f ms  p99 %.2f ms  max %.2f ms", this.count,
+                                    this.getMeanMillis (), this.getPercentileMillis (50), this.getPercentileMillis (90),
+                                    this.getPercentileMillis (99), this.getMaxMillis ()));
+        for (int i = 0; i <= BUCKETS; i++) {
+            if (this.counts [i] > 0) {
+                out.println (String.format ("%.2f%s %d", i * BUCKET_NANOS * 0.000001, (i == BUCKETS) ? "+" : "", this.counts [i]));
+            }
+        }
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * [Level.java]
- * File containing a game level which is basically a fancy JPanel.
+ * File containing a game level.
  * Author: Andy Wang
  * Started on 3 Jan 2019
  */
@@ -8,32 +8,37 @@
 /** Classes that the game uses. */
 package gameClasses;
 
-import javax.swing.JPanel;
-
-import javax.imageio.ImageIO;
-
-import java.awt.Graphics;
-
-import java.awt.Color;
-import java.awt.Font;
-
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintWriter;
 
 /**
- * The Level class represents an in-game level.
+ * The Level class represents an in-game level. It does not draw itself, so it can be simulated without a screen; see
+ * LevelPanel and LevelCanvas for that.
  * @author Andy Wang
  * @since 3 Jan 2019
  */
-public class Level extends JPanel {
+public class Level {
     /** Gravity in pixels per second. */
     public static final int GRAVITY = 3500;
     /** The message displayed when someone wins. */
     public static final String WIN_MESSAGE = "WINNER WINNER CHICKEN DINNER!";
     
-    private int fps; //frames per second
-    private double deltaTime = 0; //seconds since the last frame. stolen from Unity xd
-    private long now;
+    private double deltaTime = 0; //seconds per tick. stolen from Unity xd
+    
+    private int tps; //ticks per second
+    private int ticksThisSecond;
+    private long tpsStart = System.nanoTime ();
+    private double tickMillis; //smoothed time it takes to simulate a tick
+    private long ticks = 0; //how many ticks have been simulated
+    
+    private InputQueue inputs = new InputQueue (); //key presses waiting for the next tick
+    private PrintWriter recording; //where inputs are written down as they are used, or null
+    private long recordingStart; //the tick the recording started on
+    
+    private Renderer renderer; //what the game loop's frames are shown on
+    private FrameSnapshot frame = new FrameSnapshot (); //filled in again for every frame
+    private InputLatency latency; //what inputs are timed with, or null
     
     private Stage[] stages = new Stage[5];
     private int currentStageIndex = 2;
@@ -44,70 +49,162 @@ public class Level extends JPanel {
     /**
      * This constructor creates a game level.
      * @param levelName The name of the level.
+     * @throws IOException If a stage's map or background can't be loaded.
+     */
+    Level (String levelName) throws IOException {
+        this (levelName, true);
+    }
+    /**
+     * This constructor creates a game level, optionally without loading the backgrounds. Levels without backgrounds
+     * can still be simulated, but not drawn.
+     * @param levelName The name of the level.
+     * @param loadBackgrounds Whether to load the stages' background images.
+     * @throws IOException If a stage's map or background can't be loaded.
      */
-    Level (String levelName) { String stageBGs = "Images/Backgrounds/" + levelName + "/";
-        String stageMaps = "TileMaps/" + levelName + "/";
+    Level (String levelName, boolean loadBackgrounds) throws IOException { String stageMaps = "TileMaps/" + levelName + "/";
             
         for (int i = 0; i < 5; i++) {
             /* We used to use .listFiles (), but on Dennis's PC, the files were listed out of order. */
-            String imageName = stageBGs + Integer.toString (i) + "_" + levelName + ".png";
             String mapName = stageMaps + Integer.toString (i) + "_" + levelName + ".txt";
-            try {
-                this.stages [i] = new Stage (new File (mapName), ImageIO.read (new File (imageName)), this);
-            } catch (IOException e) {
-                System.out.println ("LMAO ur screwed m8, there was a problem loading the stage.");
-            }
+            this.stages [i] = new Stage (new File (mapName), loadBackgrounds ? Assets.image (getBackgroundFile (levelName, i)) : null, this);
         }
     } 
+    /**
+     * getBackgroundFile returns where the background of one of a level's stages is kept.
+     * @param levelName The name of the level.
+     * @param stage Which stage, from 0 to 4.
+     * @return The background's file.
+     */
+    static File getBackgroundFile (String levelName, int stage) {
+        return new File ("Images/Backgrounds/" + levelName + "/" + Integer.toString (stage) + "_" + levelName + ".png");
+    }
     
     /**
-     * paintComponent draws all the graphics to the screen.
-     * @param g The Graphics object to use.
+     * setRenderer changes what the Level's frames are shown on. If there is no Renderer, no frames are made.
+     * @param renderer The Renderer to show frames on.
      */
-    @Override public void paintComponent (Graphics g) {
+    public void setRenderer (Renderer renderer) {
+        this.renderer = renderer;
+    }
+    /**
+     * setLatency starts timing how long inputs take to get from the key listener to the screen. Only call this while the
+     * game loop is stopped.
+     * @param latency What to time inputs with, or null to stop timing them.
+     */
+    public void setLatency (InputLatency latency) {
+        this.latency = latency;
+        if (latency != null) {
+            latency.clearPending (); //they were from another level's ticks
+        }
+    }
+    /**
+     * getLatency returns what inputs are being timed with.
+     * @return The InputLatency, or null if inputs aren't being timed.
+     */
+    public InputLatency getLatency () {
+        return this.latency;
+    }
+    /**
+     * tick advances the current Stage by one step, after passing on every key pressed or released since the last tick.
+     * This is called by the game loop.
+     * @param dt The length of the tick in seconds.
+     */
+    public void tick (double dt) {
+        long start = System.nanoTime ();
         long temp;
         
-        g.drawImage (this.getCurrentStage ().getBG (), 0, 0, null);
-        this.getCurrentStage ().drawAll (g);
+        this.deltaTime = dt;
+        this.takeInputs (start);
         this.getCurrentStage ().step ();
+        this.ticks++;
         
-        g.setFont (new Font ("Arial", Font.PLAIN, 20));
-        g.setColor (Color.GREEN);
-        g.drawString (Integer.toString (fps), 20, 40); 
-        
-        if ((getCurrentStage ().getLeftPlayer ().isDead ()) && (getCurrentStage ().getRightPlayer ().isDead ())) { //check for tie first
-            g.setFont (new Font ("Arial", Font.ITALIC, 60));
-            g.setColor (new Color (255, 127, 0));
-            g.drawString ("TIE!", (PlatformerGame.WIDTH / 2) - 100, PlatformerGame.HEIGHT / 2);
-        } else if (moveDirection.equals (Level.WIN_MESSAGE)) {
-            g.setFont (new Font ("Arial", Font.ITALIC, 60));
-            g.setColor (new Color (255, 0, 255));
-            g.drawString (Level.WIN_MESSAGE, (PlatformerGame.WIDTH / 2) - 500, PlatformerGame.HEIGHT / 2);
-        } else if (!moveDirection.equals ("")) {
-            g.setFont (new Font ("Arial", Font.PLAIN, 60));
-            g.setColor (Color.WHITE);
-            g.drawString ("GO " + moveDirection, 10, PlatformerGame.HEIGHT - 40);
-        } 
-        
-        try {
-            Thread.sleep (10);
-        } catch (Exception e) {}
-        
-        /* Handle deltaTime */
+        /* Handle ticks per second */
+        this.ticksThisSecond++;
         temp = System.nanoTime ();
-        deltaTime = (temp - now) * 0.000000001; //time since last frame in seconds
-        
-        /* Handle FPS */
-        fps = (int) (1 / deltaTime); //fps = seconds / delay
-        now = temp;
-        
-        try {
-            Thread.sleep (1);
-            repaint ();
-        } catch (Exception e) {
-            System.out.println ("Uh oh! Something's terribly wrong!");
+        this.tickMillis += ((temp - start) * 0.000001 - this.tickMillis) * 0.05;
+        if (temp - this.tpsStart >= 1000000000L) {
+            this.tps = this.ticksThisSecond;
+            this.ticksThisSecond = 0;
+            this.tpsStart = temp;
         }
     }
+    /**
+     * pressKey queues a key press, which is passed on to both players on the current Stage at the start of the next
+     * tick. Only one thread may give the Level keys (Swing's in the game, or whatever runs a HeadlessMatch).
+     * @param keyCode The key code of the key pressed.
+     */
+    public void pressKey (int keyCode) {
+        this.inputs.post (System.nanoTime (), keyCode, true);
+    }
+    /**
+     * releaseKey queues a key release, which is passed on to both players on the current Stage at the start of the next
+     * tick. Only one thread may give the Level keys.
+     * @param keyCode The key code of the key released.
+     */
+    public void releaseKey (int keyCode) {
+        this.inputs.post (System.nanoTime (), keyCode, false);
+    }
+    /**
+     * record starts writing down every input as the ticks use it, as a script HeadlessMatch can play back. The ticks are
+     * counted from when the recording started. Only call this while the game loop is stopped.
+     * @param recording Where to write the inputs, or null to stop recording. It isn't closed here.
+     */
+    public void record (PrintWriter recording) {
+        this.recording = recording;
+        this.recordingStart = this.ticks;
+    }
+    /**
+     * getTicks returns how many ticks the level has been stepped.
+     * @return The number of ticks.
+     */
+    public long getTicks () {
+        return this.ticks;
+    }
+    /**
+     * getDroppedInputs returns how many key presses and releases were lost because ticks weren't taking them fast enough.
+     * @return The number of inputs.
+     */
+    public int getDroppedInputs () {
+        return this.inputs.getDropped ();
+    }
+    /*
+     * takeInputs passes every queued input on to both players, in the order they happened. If inputs are being timed,
+     * the InputLatency is told which tick used them, to be timed when a frame with that tick is shown.
+     * @param tickTime When the tick started.
+     */
+    private void takeInputs (long tickTime) {
+        while (!this.inputs.isEmpty ()) {
+            int keyCode = this.inputs.keyCode ();
+            boolean pressed = this.inputs.isPress ();
+            
+            if (this.latency != null) {
+                this.latency.used (this.inputs.time (), tickTime, this.ticks);
+            }
+            this.inputs.remove ();
+            if (pressed) {
+                this.getCurrentStage ().getLeftPlayer ().pressKey (keyCode);
+                this.getCurrentStage ().getRightPlayer ().pressKey (keyCode);
+            } else {
+                this.getCurrentStage ().getLeftPlayer ().releaseKey (keyCode);
+                this.getCurrentStage ().getRightPlayer ().releaseKey (keyCode);
+            }
+            if (this.recording != null) {
+                this.recording.println ((this.ticks - this.recordingStart) + (pressed ? " press " : " release ") + keyCode);
+            }
+        }
+    }
+    /**
+     * publishFrame takes a snapshot of the current Stage and hands it to the renderer. This is called by the game loop
+     * after it finishes a batch of ticks. The same snapshot is filled in every time, so the renderer has to copy it if it
+     * wants to keep it after present returns.
+     */
+    public void publishFrame () {
+        if (this.renderer == null) {
+            return;
+        }
+        this.frame.capture (this, this.tps, this.tickMillis);
+        this.renderer.present (this.frame);
+    }
     
     /**
      * getCurrentStage () returns the current Stage object used by the level.
@@ -124,32 +221,19 @@ public class Level extends JPanel {
         return this.currentStageIndex;
     }
     /**
-     * getNow returns the time now, as found by Level.
-     * @return Now, in seconds.
-     */
-    public long getNow () {
-        return this.now;
-    }
-    /**
-     * getFPS returns the level's fps.
-     * @return The level's fps.
+     * getTPS returns how many ticks per second the level is being stepped at.
+     * @return The level's tps.
      */
-    public int getFPS () {
-        return this.fps;
+    public int getTPS () {
+        return this.tps;
     }
     /**
-     * getDeltaTime returns the time since the level's last frame.
-     * @return The time since the level's last frame in seconds.
+     * getDeltaTime returns the length of the level's current tick.
+     * @return The time simulated by the level's current tick in seconds.
      */
     public double getDeltaTime () {
         return this.deltaTime;
     }
-    /**
-     * startTick initiates the 'now' variable.
-     */
-    public void startTick () {
-        this.now = System.nanoTime ();
-    }
     /**
      * stageUp switches the stage so you move right (index goes up).
      */
@@ -169,13 +253,15 @@ public class Level extends JPanel {
         this.getCurrentStage ().resetStage ();
     }
     /**
-     * resetLevel resets the level.
+     * resetLevel resets the level. Stop the game loop before calling this.
      */
     public void resetLevel () {
+        this.inputs.clear (); //keys pressed on the way out shouldn't carry over
         this.moveDirection = "";
         this.currentStageIndex = 2;
         for (Stage s : this.stages) {
             s.resetStage ();
+            s.releaseStaticLayer (); //they are drawn again when the level is played again
         }
     }
 }
@@ -0,0 +1,124 @@
+/*
+ * [LevelCanvas.java]
+ * File containing the canvas used for active rendering.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** Classes that the game uses. */
+package gameClasses;
+
+import java.awt.Canvas;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Toolkit;
+
+import java.awt.image.BufferStrategy;
+import java.awt.image.VolatileImage;
+
+/**
+ * LevelCanvas draws the game loop's frames itself, on the game loop's thread, instead of waiting for Swing to repaint a
+ * Level. The Stage's static layer (the background with its Tiles) is kept in video memory as a VolatileImage so that it only
+ * needs to be copied each frame.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class LevelCanvas extends Canvas implements Renderer {
+    /** How many buffers the canvas flips between. */
+    public static final int BUFFERS = 3;
+    private static final long serialVersionUID = 1L;
+
+    private VolatileImage staticLayer; //the Stage's static layer, in video memory
+    private Image staticSource; //what is currently in staticLayer
+
+    private int fps; //frames per second
+    private long lastFrame; //when the last frame was shown
+    private double drawMillis, showMillis; //smoothed time spent drawing and showing a frame
+    private String counter = ""; //the frame counter, only rebuilt a few times a second so presenting doesn't allocate
+    private long counterBuilt; //when the counter was last rebuilt
+
+    /**
+     * This constructor creates the canvas. The canvas draws everything itself, so Swing should never paint it.
+     */
+    LevelCanvas () {
+        this.setIgnoreRepaint (true);
+        this.setFocusable (true);
+    }
+    /**
+     * addNotify sets up the buffers once the canvas is on the screen. They have to be made again every time the canvas is
+     * added to the frame.
+     */
+    @Override public void addNotify () {
+        super.addNotify ();
+        this.createBufferStrategy (BUFFERS);
+        this.staticLayer = null;
+    }
+    /**
+     * present draws a frame into the back buffer and shows it.
+     * @param frame The frame to show.
+     */
+    @Override public void present (FrameSnapshot frame) {
+        BufferStrategy strategy = this.getBufferStrategy ();
+        long start, drawn, shown;
+
+        if ((strategy == null) || (!this.isDisplayable ())) {
+            return;
+        }
+
+        start = System.nanoTime ();
+        if (start - this.counterBuilt > 250000000) {
+            this.counter = this.fps + " fps  " + frame.getTPS () + " tps  sim " + String.format ("%.2f", frame.getTickMillis ()) + " ms  draw "
+                + String.format ("%.2f", this.drawMillis) + " ms  show " + String.format ("%.2f", this.showMillis) + " ms";
+            this.counterBuilt = start;
+        }
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics ();
+                this.drawStaticLayer (g, frame.getBackground ());
+                frame.drawForeground (g, this.counter);
+                g.dispose ();
+            } while (strategy.contentsRestored ());
+
+            drawn = System.nanoTime ();
+            strategy.show ();
+        } while (strategy.contentsLost ());
+
+        Toolkit.getDefaultToolkit ().sync (); //otherwise some systems buffer the frame
+        shown = System.nanoTime ();
+        frame.shown (shown);
+
+        /* Handle timings and FPS */
+        this.drawMillis += ((drawn - start) * 0.000001 - this.drawMillis) * 0.05;
+        this.showMillis += ((shown - drawn) * 0.000001 - this.showMillis) * 0.05;
+        this.fps = (int) (1 / ((shown - this.lastFrame) * 0.000000001));
+        this.lastFrame = shown;
+    }
+    /*
+     * drawStaticLayer copies the static layer onto the screen, putting it back into video memory first if it was lost or
+     * has changed.
+     * @param g The Graphics object to use.
+     * @param source The static layer to draw.
+     */
+    private void drawStaticLayer (Graphics g, Image source) {
+        GraphicsConfiguration gc = this.getGraphicsConfiguration ();
+
+        if ((this.staticLayer == null) || (this.staticLayer.validate (gc) == VolatileImage.IMAGE_INCOMPATIBLE)) {
+            this.staticLayer = gc.createCompatibleVolatileImage (PlatformerGame.WIDTH, PlatformerGame.HEIGHT);
+            this.staticSource = null;
+        }
+
+        do {
+            if ((this.staticSource != source) || (this.staticLayer.contentsLost ())) {
+                Graphics layer;
+
+                this.staticLayer.validate (gc);
+                layer = this.staticLayer.createGraphics ();
+                layer.drawImage (source, 0, 0, null);
+                layer.dispose ();
+                this.staticSource = source;
+            }
+            g.drawImage (this.staticLayer, 0, 0, null);
+        } while (this.staticLayer.contentsLost ());
+    }
+}
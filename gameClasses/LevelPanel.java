@@ -0,0 +1,108 @@
+/*
+ * [LevelPanel.java]
+ * File containing the panel that Swing paints levels on.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** Classes that the game uses. */
+package gameClasses;
+
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import java.awt.Graphics;
+import java.awt.Toolkit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LevelPanel is a fancy JPanel that shows a Level's frames when Swing gets around to painting it (passive rendering).
+ * Frames are copied into a triple buffer: the game loop fills one snapshot, Swing draws another, and the third holds the
+ * newest finished frame, so neither thread waits and no snapshot is ever made after the panel is created.
+ * <p>
+ * Swing only copies what was painted to the screen once every component is done painting, so a frame's inputs are timed
+ * (see InputLatency) from a task queued behind the painting, after that copy.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class LevelPanel extends JPanel implements Renderer {
+    private static final long serialVersionUID = 1L;
+    
+    private int fps; //frames drawn per second
+    private long lastPaint; //when the last frame was drawn, in nanoseconds
+    private String counter = ""; //the frame counter, only rebuilt a few times a second so painting doesn't allocate
+    private long counterBuilt; //when the counter was last rebuilt
+    
+    private static final int FRESH = 4; //set in ready when the game loop has put a frame there that hasn't been drawn
+    
+    private FrameSnapshot[] frames = {new FrameSnapshot (), new FrameSnapshot (), new FrameSnapshot ()};
+    private int back = 0; //the snapshot the game loop fills in. Only the game loop touches this
+    private AtomicInteger ready = new AtomicInteger (1); //the newest finished snapshot, plus FRESH
+    private int front = 2; //the snapshot being drawn. Only Swing touches this
+    private boolean showing = false; //if front holds a frame of the current level
+    
+    /* The frame last painted, kept for stampShown. Only Swing touches these */
+    private InputLatency paintedLatency;
+    private long paintedTicks;
+    private Runnable stampShown = new Runnable () {
+        @Override public void run () {
+            Toolkit.getDefaultToolkit ().sync (); //otherwise some systems buffer the frame
+            paintedLatency.shown (paintedTicks, System.nanoTime ());
+        }
+    };
+    
+    /**
+     * paintComponent draws the latest frame published by the game loop to the screen. This never steps or waits on the
+     * simulation.
+     * @param g The Graphics object to use.
+     */
+    @Override public void paintComponent (Graphics g) {
+        FrameSnapshot current;
+        long temp = System.nanoTime ();
+        
+        if ((this.ready.get () & FRESH) != 0) { //swap in the newest frame
+            this.front = this.ready.getAndSet (this.front) & ~FRESH;
+            this.showing = true;
+        }
+        current = this.frames [this.front];
+        
+        if (!this.showing) { //nothing has been simulated yet
+            super.paintComponent (g);
+            return;
+        }
+        
+        /* Handle FPS */
+        fps = (int) (1 / ((temp - this.lastPaint) * 0.000000001));
+        this.lastPaint = temp;
+        
+        if (temp - this.counterBuilt > 250000000) {
+            this.counter = fps + " fps  " + current.getTPS () + " tps  sim " + String.format ("%.2f", current.getTickMillis ()) + " ms";
+            this.counterBuilt = temp;
+        }
+        current.draw (g, this.counter);
+        if (current.getLatency () != null) { //the ticks are kept, since the game loop may reuse the snapshot by then
+            this.paintedLatency = current.getLatency ();
+            this.paintedTicks = current.getTicks ();
+            SwingUtilities.invokeLater (this.stampShown); //runs once Swing has copied the frame to the screen
+        }
+    }
+    /**
+     * present copies the frame to be drawn the next time Swing paints the panel.
+     * @param frame The frame to show.
+     */
+    @Override public void present (FrameSnapshot frame) {
+        this.frames [this.back].copyFrom (frame);
+        this.back = this.ready.getAndSet (this.back | FRESH) & ~FRESH;
+        this.repaint ();
+    }
+    /**
+     * removeNotify forgets the last frame when the panel is taken off the screen, so it isn't shown at the start of
+     * the next level.
+     */
+    @Override public void removeNotify () {
+        super.removeNotify ();
+        this.ready.set (this.ready.get () & ~FRESH); //the game loop is stopped by now, so nothing else is publishing
+        this.showing = false;
+    }
+}
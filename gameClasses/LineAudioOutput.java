@@ -0,0 +1,57 @@
+/*
+ * [LineAudioOutput.java]
+ * This file contains the class that sends mixed sound to the sound card.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * LineAudioOutput sends the mixer's sound to the sound card through one SourceDataLine, which is the only line the game
+ * ever opens. Writing waits whenever the line's buffer is full, so that buffer is what paces the mixer.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class LineAudioOutput implements AudioOutput {
+    private SourceDataLine line;
+
+    /**
+     * open opens the sound card's line.
+     * @param format The format the sound will be in.
+     * @param bufferBytes How many bytes the line should hold.
+     * @throws LineUnavailableException If there is no sound card, or it can't play the format.
+     */
+    @Override public void open (AudioFormat format, int bufferBytes) throws LineUnavailableException {
+        try {
+            this.line = AudioSystem.getSourceDataLine (format);
+        } catch (IllegalArgumentException e) { //no line at all for the format
+            throw new LineUnavailableException (e.getMessage ());
+        }
+        this.line.open (format, bufferBytes);
+        this.line.start ();
+    }
+    /**
+     * write sends sound to the line, waiting until the line has room.
+     * @param data The sound.
+     * @param length How many bytes of data to send.
+     */
+    @Override public void write (byte[] data, int length) {
+        this.line.write (data, 0, length);
+    }
+    /**
+     * close stops the line right away and closes it.
+     */
+    @Override public void close () {
+        if (this.line != null) {
+            this.line.stop ();
+            this.line.close ();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * [MusicStream.java]
+ * This file contains the class for a piece of music played straight from its file.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A MusicStream plays music straight from its file instead of decoding all of it first, so only a moment of it is ever
+ * in memory. Its own thread decodes the file a chunk at a time into a ring buffer (already in AudioMixer.FORMAT), and
+ * the mixer's thread takes it out as it mixes. Only the streamer writes and only the mixer reads, so the two never
+ * have to lock: each just moves its own count on, after touching the samples. Even opening the file is done by the
+ * streamer, so whoever starts the music (e.g. Swing, starting a level) never waits on the disk; until the first chunk is
+ * decoded, the music is just silent.
+ * <p>
+ * When the file ends and it should loop, the file is opened again and its first samples go right after its last ones,
+ * so there is no gap. Each stream also has its own gain, which the mixer fades up or down a little every frame.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class MusicStream {
+    /** How many frames the ring buffer holds: half a second. */
+    public static final int BUFFER_FRAMES = 24000;
+    /** How many frames are read from the file at a time. */
+    public static final int CHUNK_FRAMES = 2048;
+
+    private File file;
+    private int loops; //how many more times to play after this, or -1 to loop forever
+
+    private short[] ring = new short [BUFFER_FRAMES * 2];
+    private volatile long written = 0; //how many samples the streamer has put in the ring
+    private volatile long taken = 0;   //how many samples the mixer has taken out
+    private volatile boolean ended = false;  //if the streamer has nothing more to write
+    private volatile boolean closed = false; //if the stream was let go of, so the streamer should stop
+    private volatile boolean opened = false; //if the streamer has opened the file and decoded the first chunk
+    private int underruns = 0; //how many times the mixer wanted more than was ready
+
+    /* The streamer's own state */
+    private AudioInputStream in;
+    private int channels;
+    private double step; //how far to move through the file for each frame mixed
+    private byte[] bytes;
+    private short[] source = new short [(CHUNK_FRAMES + 1) * 2]; //decoded frames from the file, both sides
+    private int sourceFrames = 0; //how many frames of source are decoded
+    private double at = 0; //where the next frame is in source, between two frames if the rates differ
+
+    /* The mixer's own state */
+    private float gain = 0;
+    private float targetGain = 0;
+    private float gainStep = 0; //how much gain changes each frame until it gets to targetGain
+    private volatile boolean finished = false;
+
+    /**
+     * This constructor makes a stream of some music. Nothing is read until start is called.
+     * @param file The music's file, e.g. a .wav.
+     * @param loops How many more times to play it after the first, or Sound.LOOP_CONTINUOUSLY to loop until it is stopped.
+     */
+    MusicStream (File file, int loops) {
+        this.file = file;
+        this.loops = loops;
+    }
+    /**
+     * start starts the streamer's thread, which opens the file and keeps the ring buffer full until the music ends or the
+     * stream is closed. If the file can't be opened, the music just ends.
+     */
+    public void start () {
+        Thread streamer = new Thread (new Runnable () {
+            @Override public void run () {
+                try {
+                    open ();
+                    fill ();
+                    opened = true;
+                    while ((!closed) && (!ended)) {
+                        if (!fill ()) {
+                            Thread.sleep (10); //the ring is full, and a twentieth of it is mixed in 10 ms
+                        }
+                    }
+                } catch (UnsupportedAudioFileException e) {
+                    System.out.println ("Something went wrong loading the music: " + e.getMessage ());
+                    ended = true;
+                } catch (IOException e) {
+                    System.out.println ("Something went wrong playing the music: " + e.getMessage ());
+                    ended = true;
+                } catch (InterruptedException e) {
+                    ended = true;
+                } finally {
+                    closeInput ();
+                }
+            }
+        }, "Music streamer");
+
+        streamer.setDaemon (true);
+        streamer.setPriority (Thread.NORM_PRIORITY + 1); //it has half a second of slack, but shouldn't wait on the game
+        streamer.start ();
+    }
+    /**
+     * close lets go of the stream: the streamer stops and closes the file. This is called by the mixer once the music
+     * has ended or faded out.
+     */
+    public void close () {
+        this.closed = true;
+    }
+    /**
+     * getUnderruns returns how many times the mixer wanted more music than had been decoded, so some silence was heard.
+     * @return The number of times.
+     */
+    public int getUnderruns () {
+        return this.underruns;
+    }
+    /**
+     * isFinished checks if the music has ended or faded out, so it isn't being mixed anymore.
+     * @return If it's finished.
+     */
+    public boolean isFinished () {
+        return this.finished;
+    }
+
+    /**
+     * fadeTo starts fading the music to a gain. This only runs on the mixer's thread, like mixInto, so it doesn't lock.
+     * @param gain The gain to get to: 1 is as loud as it was recorded, 0 is silent.
+     * @param frames How many frames to take getting there. 0 goes there right away.
+     */
+    void fadeTo (float gain, int frames) {
+        this.targetGain = gain;
+        if (frames <= 0) {
+            this.gain = gain;
+            this.gainStep = 0;
+        } else {
+            this.gainStep = Math.abs (gain - this.gain) / frames;
+        }
+    }
+    /**
+     * mixInto adds the next frames of music into a block being mixed, fading as it goes. Only the mixer calls this.
+     * @param mixed The block, both sides of each frame one after the other.
+     * @return If the music is finished: it has ended, or faded all the way out.
+     */
+    boolean mixInto (float[] mixed) {
+        long start = this.taken;
+        int count = (int) Math.min (mixed.length, this.written - start); //what the streamer has written so far
+        int index = (int) (start % this.ring.length);
+
+        for (int i = 0; i < count; i += 2) {
+            if (this.gain != this.targetGain) { //move the gain on once per frame
+                this.gain = (this.gain < this.targetGain) ? Math.min (this.targetGain, this.gain + this.gainStep)
+                                                          : Math.max (this.targetGain, this.gain - this.gainStep);
+            }
+            mixed [i] += this.ring [index] * this.gain;
+            mixed [i + 1] += this.ring [index + 1] * this.gain;
+            index = (index + 2) % this.ring.length;
+        }
+        this.taken = start + count; //only after reading, so the streamer doesn't write over them first
+
+        if ((count < mixed.length) && (!this.ended) && (this.opened)) { //before it's opened, it's just not ready yet
+            this.underruns++;
+        }
+        this.finished = ((this.ended) && (this.taken == this.written)) || ((this.gain == 0) && (this.targetGain == 0));
+        return this.finished;
+    }
+
+    /*
+     * fill decodes as much of the file as fits in the ring buffer, opening it again if it ends and should loop.
+     * @return If anything was written. False means the ring is full (or the music has ended).
+     */
+    private boolean fill () throws IOException {
+        boolean wrote = false;
+
+        while (!this.ended) {
+            long free = this.ring.length - (this.written - this.taken);
+            long next = this.written;
+
+            /* Write every frame that falls between two decoded frames */
+            while ((free >= 2) && (this.at + 1 < this.sourceFrames)) {
+                int before = (int) this.at;
+                double fraction = this.at - before;
+                int index = (int) (next % this.ring.length);
+
+                for (int c = 0; c < 2; c++) {
+                    int a = this.source [before * 2 + c], b = this.source [(before + 1) * 2 + c];
+
+                    this.ring [index + c] = (short) Math.round (a + (b - a) * fraction);
+                }
+                next += 2;
+                free -= 2;
+                this.at += this.step;
+            }
+            if (next != this.written) {
+                this.written = next; //only after writing, so the mixer doesn't take them first
+                wrote = true;
+            } if (free < 2) {
+                return wrote;
+            }
+
+            /* Keep the last frame (it's the "before" of the next one) and decode more after it */
+            if (!this.decode ()) { //the end of the file
+                if (this.loops == 0) {
+                    this.ended = true;
+                } else {
+                    if (this.loops > 0) {
+                        this.loops--;
+                    }
+                    this.closeInput ();
+                    try {
+                        this.open (); //the first frame follows right after the last one
+                    } catch (UnsupportedAudioFileException e) {
+                        throw new IOException (e.getMessage ());
+                    }
+                }
+            }
+        } return wrote;
+    }
+    /*
+     * decode moves the frames that are still needed to the start of source, and decodes a chunk of the file after them.
+     * @return If anything was decoded. False means the file has ended.
+     */
+    private boolean decode () throws IOException {
+        int keep = Math.min ((int) this.at, this.sourceFrames);
+        int read = 0, got;
+
+        System.arraycopy (this.source, keep * 2, this.source, 0, (this.sourceFrames - keep) * 2);
+        this.sourceFrames -= keep;
+        this.at -= keep;
+
+        while ((read < this.bytes.length) && ((got = this.in.read (this.bytes, read, this.bytes.length - read)) > 0)) {
+            read += got;
+        }
+        read /= 2 * this.channels; //whole frames
+        read = Math.min (read, CHUNK_FRAMES + 1 - this.sourceFrames);
+
+        for (int f = 0; f < read; f++) {
+            for (int c = 0; c < 2; c++) {
+                int sample = (f * this.channels + Math.min (c, this.channels - 1)) * 2; //mono goes to both sides
+
+                this.source [(this.sourceFrames + f) * 2 + c] = (short) ((this.bytes [sample] & 0xFF) | (this.bytes [sample + 1] << 8));
+            }
+        }
+        this.sourceFrames += read;
+        return read > 0;
+    }
+    /*
+     * open opens the file and turns it into plain 16 bit samples.
+     */
+    private void open () throws IOException, UnsupportedAudioFileException {
+        AudioInputStream encoded = AudioSystem.getAudioInputStream (this.file);
+        AudioFormat format = encoded.getFormat ();
+
+        this.channels = format.getChannels ();
+        this.step = format.getSampleRate () / AudioMixer.FORMAT.getSampleRate ();
+        this.bytes = new byte [(CHUNK_FRAMES - 1) * 2 * this.channels]; //one frame of source is always kept
+        try {
+            this.in = AudioSystem.getAudioInputStream (new AudioFormat (format.getSampleRate (), 16, this.channels, true, false), encoded);
+        } catch (IllegalArgumentException e) { //Java can't turn it into plain samples
+            encoded.close ();
+            throw new UnsupportedAudioFileException (this.file + ": " + e.getMessage ());
+        }
+    }
+    /*
+     * closeInput closes the file, if it's open.
+     */
+    private void closeInput () {
+        try {
+            if (this.in != null) {
+                this.in.close ();
+            }
+        } catch (IOException e) {} //nothing more is read from it anyway
+    }
+}
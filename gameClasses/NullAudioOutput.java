@@ -0,0 +1,79 @@
+/*
+ * [NullAudioOutput.java]
+ * This file contains the class that throws mixed sound away.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * NullAudioOutput throws the mixer's sound away, for machines without a sound card. It takes sound only as fast as it
+ * would be heard, so voices still end when they would have and the mixer's thread doesn't spin. Give it a clock of false
+ * to take sound as fast as it is written instead, e.g. to mix a few seconds of sound right away.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class NullAudioOutput implements AudioOutput {
+    private boolean realTime;
+    private int bytesPerSecond;
+    private long bytesWritten = 0;
+    private long startTime; //when the first sound was taken
+
+    /**
+     * This constructor makes an output that takes sound as fast as it would be heard.
+     */
+    NullAudioOutput () {
+        this (true);
+    }
+    /**
+     * This constructor makes an output that takes sound either as fast as it would be heard or as fast as it comes.
+     * @param realTime If writing should wait as long as the sound would take to be heard.
+     */
+    NullAudioOutput (boolean realTime) {
+        this.realTime = realTime;
+    }
+    /**
+     * open remembers how fast the sound would be heard.
+     * @param format The format the sound will be in.
+     * @param bufferBytes Ignored, nothing is kept.
+     */
+    @Override public void open (AudioFormat format, int bufferBytes) {
+        this.bytesPerSecond = format.getFrameSize () * (int) format.getFrameRate ();
+        this.startTime = System.nanoTime ();
+    }
+    /**
+     * write throws sound away, after waiting until it would have been heard if this is in real time.
+     * @param data The sound.
+     * @param length How many bytes of data to throw away.
+     */
+    @Override public void write (byte[] data, int length) {
+        this.bytesWritten += length;
+        if (this.realTime) {
+            long due = this.startTime + this.bytesWritten * 1000000000L / this.bytesPerSecond; //counted from the start, so it doesn't drift
+            long wait = due - System.nanoTime ();
+
+            if (wait > 0) {
+                try {
+                    Thread.sleep (wait / 1000000, (int) (wait % 1000000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread ().interrupt ();
+                }
+            }
+        }
+    }
+    /**
+     * close does nothing, since nothing was opened.
+     */
+    @Override public void close () {}
+    /**
+     * getBytesWritten returns how many bytes of sound have been thrown away.
+     * @return The number of bytes.
+     */
+    public long getBytesWritten () {
+        return this.bytesWritten;
+    }
+}
@@ -16,12 +16,11 @@ import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
-import javax.sound.sampled.Clip;
-
-import javax.imageio.ImageIO;
 
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FontFormatException;
@@ -33,7 +32,13 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /***
   * The revolutionary main GUI that allows you to play levels or quit the game.
@@ -61,9 +66,21 @@ public class PlatformerGame extends JFrame {
     public static final int HEIGHT = 768;
     
     private Level level;
-    private Level castleLevel;
-    private Level forestLevel;
-    private Level mountainLevel;
+    private Component view; //what the level is shown on: levelPanel or levelCanvas
+    private LevelPanel levelPanel = new LevelPanel ();
+    private LevelCanvas levelCanvas = new LevelCanvas ();
+    private boolean activeRendering = "active".equals (System.getProperty ("renderer")); //-Drenderer=active draws on levelCanvas
+    private GameLoop gameLoop;
+    private int tickRate = Integer.getInteger ("tickRate", GameLoop.DEFAULT_TICK_RATE); //can be changed with -DtickRate=
+    private String recordingFile = System.getProperty ("record"); //-Drecord=file writes each match's inputs down, for HeadlessMatch
+    private PrintWriter recording;
+    private InputLatency latency = new InputLatency (); //F3 shows how long inputs take to get to the screen, F4 writes it down
+    private File latencyFile = new File (System.getProperty ("latency", "latency.txt")); //can be changed with -Dlatency=
+    private CompletableFuture <Void> assetsLoading; //the sprites and sounds, loaded in the background by Assets
+    private String waitingFor; //the level that was picked before it was done loading, or null
+    private JLabel loadingLabel; //shows how much has been loaded, until everything has
+    private JLabel levelLoadingLabel; //shows which level is loading, on the level select screen
+    private Timer loadingTimer;
     
     /***
       * Constructor initalizes all necessary details when there is new JFrame created.
@@ -87,10 +104,8 @@ public class PlatformerGame extends JFrame {
         
         Font vdFont = new Font("Prince Valiant", Font.PLAIN, 60);
         
-        /** PRELOAD ALL THE LEVELS */
-        castleLevel = new Level ("Castle");
-        forestLevel = new Level ("Forest");
-        mountainLevel = new Level ("Mountains");
+        /** START LOADING THE SPRITES AND SOUNDS (the menu shows up while they load, levels are built when needed) */
+        assetsLoading = Assets.start ();
         
         this.setSize(WIDTH, HEIGHT);
         this.setResizable(false);
@@ -156,18 +171,25 @@ public class PlatformerGame extends JFrame {
         
         // Make the logo
         try {
-            logoIcon = new ImageIcon (ImageIO.read (new File ("Images/logo.png")));
+            logoIcon = new ImageIcon (ImageLoader.read (new File ("Images/logo.png")));
         } catch (IOException e) {
             System.out.println ("Couldn't load icon.");
         } logo = new JLabel ();
         logo.setIcon (logoIcon);
         
+        // Loading progress, under the buttons
+        loadingLabel = new JLabel (" ");
+        loadingLabel.setFont (vdFont.deriveFont (30f));
+        loadingLabel.setForeground (Color.GRAY);
+        
         // Adding to panel
         mainPanel.add (logo);
         mainPanel.add(Box.createRigidArea(new Dimension(450, 150)));
         mainPanel.add(startButton);
         mainPanel.add(Box.createRigidArea(new Dimension(450, 30)));
         mainPanel.add(quitButton);
+        mainPanel.add(Box.createRigidArea(new Dimension(450, 30)));
+        mainPanel.add(loadingLabel);
         
         // Adding to JFrame
         thisReference.add(mainPanel);
@@ -254,14 +276,53 @@ public class PlatformerGame extends JFrame {
         levelSelectPanel.add(mountainsSelectButton);
         levelSelectPanel.add(Box.createRigidArea(new Dimension(320,50)));
         levelSelectPanel.add(levelSelectBack);
+        levelSelectPanel.add(Box.createRigidArea(new Dimension(320,20)));
+        levelLoadingLabel = new JLabel (" ");
+        levelLoadingLabel.setFont (vdFont.deriveFont (30f));
+        levelLoadingLabel.setForeground (Color.GRAY);
+        levelSelectPanel.add(levelLoadingLabel);
+        
+        loadingTimer = new Timer (100, new ActionListener () {
+            
+            /***
+              * Every so often, this shows how loading is going, and starts the level that was picked once it is built.
+              * @param e The event passed by the timer.
+              */
+            @Override public void actionPerformed (ActionEvent e) {
+                updateLoading ();
+            }
+        });
+        loadingTimer.start ();
         
         // Everything is set to visible at first
         this.setVisible(true);
     }
+    /**
+     * updateLoading shows how many assets have loaded, and starts the level that was picked once it has been built. Once
+     * nothing is loading, the progress goes away.
+     */
+    public void updateLoading () {
+        if ((waitingFor != null) && (Assets.level (waitingFor).isDone ())) {
+            startLevel (waitingFor);
+        }
+        
+        if (!assetsLoading.isDone ()) {
+            loadingLabel.setText ("       Loading... " + Assets.getFinishedCount () + " / " + Assets.getStartedCount ());
+        } else if (loadingLabel.getText ().trim ().length () > 0) { //just finished
+            loadingLabel.setText (" ");
+            System.out.println (Assets.report ());
+            System.out.println (ImageLoader.report ());
+        }
+        
+        if ((assetsLoading.isDone ()) && (waitingFor == null)) {
+            loadingTimer.stop ();
+        }
+    }
     /**
      * toLevelSelect opens up the level select menu.
      */
     public void toLevelSelect () {
+        Assets.prefetch ("Castle", "Forest", "Mountains"); // build levels in the background while one is being picked
         thisReference.add(levelSelectPanel); // add level select panel
         levelSelectPanel.updateUI();         // then we show changes
     }
@@ -269,6 +330,11 @@ public class PlatformerGame extends JFrame {
      * toMenu opens up the main menu screen.
      */
     public void toMenu () {
+        if (levelMusic != null) {
+            levelMusic.stop (); // fade out the last level's music
+        }
+        waitingFor = null; // don't start a level that was picked before going back
+        levelLoadingLabel.setText (" ");
         thisReference.add(mainPanel);
         mainPanel.updateUI();
     }
@@ -277,47 +343,117 @@ public class PlatformerGame extends JFrame {
      * @param name The name of the level to load.
      */
     public void startLevel (String name) {
+        CompletableFuture <Level> loading = Assets.level (name);
+        
+        if (!loading.isDone ()) { // come back once it's built, without freezing the menu
+            waitingFor = name;
+            levelLoadingLabel.setText ("Loading " + name + "...");
+            loadingTimer.start ();
+            return;
+        } waitingFor = null;
+        levelLoadingLabel.setText (" ");
+        
+        try {
+            this.level = loading.join ();
+        } catch (CompletionException e) {
+            System.out.println ("Couldn't build the level: " + ((e.getCause () instanceof UncheckedIOException) ? e.getCause ().getCause () : e.getCause ()));
+            return;
+        }
+        
         this.remove (levelSelectPanel);
         
         if (name.equals ("Castle")) {
-            this.level = this.castleLevel;
             levelMusic = Sound.CASTLE_MUSIC;
         } if (name.equals ("Forest")) {
-            this.level = this.forestLevel;
             levelMusic = Sound.FOREST_MUSIC;
         } if (name.equals ("Mountains")) {
-            this.level = this.mountainLevel;
             levelMusic = Sound.MOUNTAIN_MUSIC;
         }
         
-        this.levelMusic.loop (Clip.LOOP_CONTINUOUSLY);
+        this.levelMusic.loop (Sound.LOOP_CONTINUOUSLY); // fades out any other level's music, or keeps playing if it's the same
+        
+        if (this.activeRendering) { //the canvas draws the frames itself
+            this.view = this.levelCanvas;
+            this.level.setRenderer (this.levelCanvas);
+        } else { //Swing paints the level
+            this.view = this.levelPanel;
+            this.level.setRenderer (this.levelPanel);
+        }
         
-        this.add (level);
-        this.level.updateUI ();
-        this.level.setFocusable (true);
-        this.level.requestFocus ();
-        this.level.addKeyListener (new KeyListener () {
+        this.add (view);
+        this.validate ();
+        this.view.setFocusable (true);
+        this.view.requestFocus ();
+        this.view.addKeyListener (new KeyListener () {
             @Override public void keyPressed (KeyEvent e) {
                 if (e.getKeyCode () == 27) {
+                    gameLoop.stop (); //the level can't be reset (or the canvas removed) while it's being stepped
+                    view.removeKeyListener (this); //a new one is added when the next level starts
+                    stopRecording ();
+                    
                     try {
-                        thisReference.remove (level);
+                        thisReference.remove (view);
                     } catch (NullPointerException exc) {} //at this point im too lazy to fix it lmao
                     
                     level.resetLevel (); //reset the levels so that they can be replayed
-                    levelMusic.stop (); //stop the current music
-                    toLevelSelect ();
+                    level = null; //only the cache keeps it now, so it can be forgotten
+                    toLevelSelect (); //the music keeps playing, and fades into the next level's
+                } else if (e.getKeyCode () == KeyEvent.VK_F3) {
+                    latency.toggleOverlay ();
+                } else if (e.getKeyCode () == KeyEvent.VK_F4) {
+                    exportLatency ();
                 } else {
-                    level.getCurrentStage ().getLeftPlayer ().checkKeysPressed (e);
-                    level.getCurrentStage ().getRightPlayer ().checkKeysPressed (e);
+                    level.pressKey (e.getKeyCode ());
                 }
             } @Override public void keyTyped (KeyEvent e) {}
             @Override public void keyReleased (KeyEvent e) {
                 if (level != null) {
-                    level.getCurrentStage ().getLeftPlayer ().checkKeysReleased (e);
-                    level.getCurrentStage ().getRightPlayer ().checkKeysReleased (e);
+                    level.releaseKey (e.getKeyCode ());
                 }
             }
         });
-        this.level.startTick (); //start the level's timer
+        this.level.setLatency (this.latency);
+        this.startRecording (name);
+        this.gameLoop = new GameLoop (this.level, this.tickRate);
+        this.gameLoop.start (); //start stepping the level
+    }
+    /*
+     * exportLatency writes the input latency histograms to latencyFile.
+     */
+    private void exportLatency () {
+        try {
+            this.latency.export (this.latencyFile);
+            System.out.println ("Wrote the input latency to " + this.latencyFile);
+        } catch (IOException e) {
+            System.out.println ("Couldn't write the input latency: " + e.getMessage ());
+        }
+    }
+    /*
+     * startRecording writes down the inputs of the level about to be played, if -Drecord was given. Play it back with
+     * java gameClasses.HeadlessMatch name ticks file (and the same -DtickRate).
+     * @param name The name of the level.
+     */
+    private void startRecording (String name) {
+        if (this.recordingFile == null) {
+            return;
+        }
+        try {
+            this.recording = new PrintWriter (new FileWriter (this.recordingFile));
+        } catch (IOException e) {
+            System.out.println ("Couldn't record the inputs: " + e.getMessage ());
+            return;
+        }
+        this.recording.println ("# " + name + " at " + this.tickRate + " ticks per second");
+        this.level.record (this.recording);
+    }
+    /*
+     * stopRecording finishes writing down the inputs, if they were being written. Stop the game loop before calling this.
+     */
+    private void stopRecording () {
+        if (this.recording != null) {
+            this.level.record (null);
+            this.recording.close ();
+            this.recording = null;
+        }
     }
 }
\ No newline at end of file
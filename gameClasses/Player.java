@@ -21,14 +21,19 @@ public class Player extends Entity implements Moving {
     
     private double xVel = 0, yVel = 0; 
     private int move, left, right; //used to see which direction the Player should move in
+    private boolean leftPlayer; //if this is the left player (the one on WASD)
     private boolean onFloor, up, hasSword = true, isCrouching, isThrowingSword, isHighAttacking, isMidAttacking, isLowAttacking, isHighParrying, isMidParrying, isLowParrying, dead = false;
     
-    /* Represents the keys that control movement (u = up or jump, l = left, r = right)
-     * throwSword -> key has the player play throwing sprite and spawns a spinning sword entity
+    /* What each key does for this Player, e.g. jumping or a high attack. A key is looked up by its key code, so finding
+     * what it does is one array read instead of comparing it with every key the Player has.
+     * THROW -> has the player play throwing sprite and spawns a spinning sword entity
      * attack -> keys have the player do a certain attack at a different level (high, midium or low) to kill other players.
      * parry -> keys have the player do a certain parry at different level (high, midium or low) to defend against blows.
      */
-    private char u, l, r, d, throwSword, highAttack, midAttack, lowAttack, highParry, midParry, lowParry;
+    private static final int KEY_CODES = 256; //every key the game binds has a code below this
+    private static final byte NOTHING = 0, UP = 1, LEFT = 2, RIGHT = 3, DOWN = 4, THROW = 5, HIGH_ATTACK = 6, MID_ATTACK = 7, 
+                              LOW_ATTACK = 8, HIGH_PARRY = 9, MID_PARRY = 10, LOW_PARRY = 11;
+    private byte[] actions = new byte [KEY_CODES];
     
     /**
      * This constructor initializes the Player with a custom name.
@@ -44,23 +49,32 @@ public class Player extends Entity implements Moving {
     Player (int x, int y, Sprite spr, String name, char up, char left, char right, char down, char throwSwordKey, 
             char highAttackKey, char midAttackKey, char lowAttackKey, char highParryKey, char midParryKey, char lowParryKey, Stage stage) {
         super (x, y, spr, name, stage);
-        this.u = up;
-        this.l = left;
-        this.r = right;
-        this.d = down;
-        this.throwSword = throwSwordKey;
-        this.highAttack = highAttackKey;
-        this.midAttack = midAttackKey;
-        this.lowAttack = lowAttackKey;
-        this.highParry = highParryKey;
-        this.midParry = midParryKey;
-        this.lowParry = lowParryKey;
+        this.layer = Entity.PLAYER_LAYER;
+        this.leftPlayer = name.equals ("Left Player");
+        this.bind (up, UP);
+        this.bind (left, LEFT);
+        this.bind (right, RIGHT);
+        this.bind (down, DOWN);
+        this.bind (throwSwordKey, THROW);
+        this.bind (highAttackKey, HIGH_ATTACK);
+        this.bind (midAttackKey, MID_ATTACK);
+        this.bind (lowAttackKey, LOW_ATTACK);
+        this.bind (highParryKey, HIGH_PARRY);
+        this.bind (midParryKey, MID_PARRY);
+        this.bind (lowParryKey, LOW_PARRY);
         
         // FLIP THE RIGHT PLAYER
-        if (name.equals ("Right Player")) {
-            this.sprite.flipped = true;
+        if (!this.leftPlayer) {
+            this.animation.flipped = true;
         }
     }
+    /**
+     * isLeftPlayer checks which side the Player started on.
+     * @return true for the left player, false for the right player.
+     */
+    public boolean isLeftPlayer () {
+        return this.leftPlayer;
+    }
     /**
      * isThrowing finds if the player is currently throwing a sword.
      * @return If the player is throwing a sword.
@@ -84,9 +98,9 @@ public class Player extends Entity implements Moving {
         this.hasSword = true;
         this.dead = false;
         
-        this.sprite.flipped = this.name.equals ("Right Player"); //if this is the right player, flip it
+        this.animation.flipped = !this.leftPlayer; //if this is the right player, flip it
         
-        this.sprite.frameIndex = 0; //just in case
+        this.animation.frameIndex = 0; //just in case
     }
     
     /**
@@ -94,77 +108,124 @@ public class Player extends Entity implements Moving {
      * @param e The KeyEvent to be used.
      */
     public void checkKeysPressed (KeyEvent e) {
-        if (e.getKeyCode() == (int) this.l) {
-            this.left = 1;
-        } if (e.getKeyCode () == (int) this.r) {
-            this.right = 1;
-        } if (e.getKeyCode () == (int) this.u) {
-          if (!this.dead) { //prevent player from jumping while death animation is playing
-            this.up = true;
-          }
-        } if (e.getKeyCode () == (int) this.d) {
-            if ((!this.isCrouching) && (this.onFloor) && (!this.isAttacking()) && (!this.isParrying())) {
-                this.isCrouching = true;
-            }
-        } if (e.getKeyCode () == (int) this.throwSword) {
-            if ((!this.isAttacking()) && (this.hasSword)) {
-                this.isThrowingSword = true;
-            }
-        } if (e.getKeyCode () == (int) this.highAttack) {
-            if ((!this.isAttacking()) && (this.hasSword)) {
-                this.isHighAttacking = true;
-                Sound.SWOOSH.play ();
-            }
-        }
-        if (e.getKeyCode () == (int) this.midAttack) {
-            if ((!this.isAttacking()) && (this.hasSword)) {
-                this.isMidAttacking = true;
-                Sound.SWOOSH.play ();
-            }
-        } 
-        if (e.getKeyCode () == (int) this.lowAttack) {
-            if ((!this.isAttacking()) && (this.hasSword)) {
-                this.isLowAttacking = true;
-                Sound.SWOOSH.play ();
-            }
-            
-        } if (e.getKeyCode() == (int) this.highParry) {
-            if ((!isParrying() && (this.onFloor)) && (this.hasSword)) {
-                this.isHighParrying = true;
-            }
-        } if (e.getKeyCode () == (int) this.midParry) {
-            if ((!isParrying() && (this.onFloor)) && (this.hasSword)) {
-                this.isMidParrying = true;
-            }
-        } if (e.getKeyCode () == (int) this.lowParry) {
-            if ((!isParrying() && (this.onFloor)) && (this.hasSword)) {
-                this.isLowParrying = true;
-            }
-        }
-    } 
+        this.pressKey (e.getKeyCode ());
+    }
     /**
      * checkKeysReleased will stop the Player's movement depending on which keys are released.
      * @param e The KeyEvent to be used.
      */
     public void checkKeysReleased (KeyEvent e) {
-        if (e.getKeyCode() == (int) this.l) {
-            this.left = 0;
-        } if (e.getKeyCode () == (int) this.r) {
-            this.right = 0;
-        } if (e.getKeyCode () == (int) this.u) {
-            this.up = false;
-        } if (e.getKeyCode () == (int) this.d) {
-            if (this.isCrouching) {
-                this.isCrouching = false;
-            }
-        } if (e.getKeyCode () == (int) this.highParry) {
-            this.isHighParrying = false;
-        } if (e.getKeyCode () == (int) this.midParry) {
-            this.isMidParrying = false;
-        } if (e.getKeyCode () == (int) this.lowParry) {
-            this.isLowParrying = false;
+        this.releaseKey (e.getKeyCode ());
+    }
+    /**
+     * pressKey updates the Player's movement as if a key was pressed. This doesn't need a KeyEvent, so it also works
+     * without a screen.
+     * @param keyCode The key code of the key pressed.
+     */
+    public void pressKey (int keyCode) {
+        switch (this.actionOf (keyCode)) {
+            case LEFT:
+                this.left = 1;
+                break;
+            case RIGHT:
+                this.right = 1;
+                break;
+            case UP:
+                if (!this.dead) { //prevent player from jumping while death animation is playing
+                    this.up = true;
+                }
+                break;
+            case DOWN:
+                if ((!this.isCrouching) && (this.onFloor) && (!this.isAttacking()) && (!this.isParrying())) {
+                    this.isCrouching = true;
+                }
+                break;
+            case THROW:
+                if ((!this.isAttacking()) && (this.hasSword)) {
+                    this.isThrowingSword = true;
+                }
+                break;
+            case HIGH_ATTACK:
+                if ((!this.isAttacking()) && (this.hasSword)) {
+                    this.isHighAttacking = true;
+                    Sound.SWOOSH.play ();
+                }
+                break;
+            case MID_ATTACK:
+                if ((!this.isAttacking()) && (this.hasSword)) {
+                    this.isMidAttacking = true;
+                    Sound.SWOOSH.play ();
+                }
+                break;
+            case LOW_ATTACK:
+                if ((!this.isAttacking()) && (this.hasSword)) {
+                    this.isLowAttacking = true;
+                    Sound.SWOOSH.play ();
+                }
+                break;
+            case HIGH_PARRY:
+                if ((!isParrying() && (this.onFloor)) && (this.hasSword)) {
+                    this.isHighParrying = true;
+                }
+                break;
+            case MID_PARRY:
+                if ((!isParrying() && (this.onFloor)) && (this.hasSword)) {
+                    this.isMidParrying = true;
+                }
+                break;
+            case LOW_PARRY:
+                if ((!isParrying() && (this.onFloor)) && (this.hasSword)) {
+                    this.isLowParrying = true;
+                }
+                break;
         }
     } 
+    /**
+     * releaseKey stops the Player's movement as if a key was released.
+     * @param keyCode The key code of the key released.
+     */
+    public void releaseKey (int keyCode) {
+        switch (this.actionOf (keyCode)) {
+            case LEFT:
+                this.left = 0;
+                break;
+            case RIGHT:
+                this.right = 0;
+                break;
+            case UP:
+                this.up = false;
+                break;
+            case DOWN:
+                if (this.isCrouching) {
+                    this.isCrouching = false;
+                }
+                break;
+            case HIGH_PARRY:
+                this.isHighParrying = false;
+                break;
+            case MID_PARRY:
+                this.isMidParrying = false;
+                break;
+            case LOW_PARRY:
+                this.isLowParrying = false;
+                break;
+        }
+    } 
+    /*
+     * bind makes a key do something for this Player.
+     */
+    private void bind (char key, byte action) {
+        this.actions [key] = action;
+    }
+    /*
+     * actionOf looks up what a key does for this Player.
+     * @return UP, LEFT, ..., or NOTHING if the Player doesn't use the key.
+     */
+    private byte actionOf (int keyCode) {
+        if ((keyCode < 0) || (keyCode >= KEY_CODES)) {
+            return NOTHING;
+        } return this.actions [keyCode];
+    }
     /**
      * The step method updates the Player's movement every step of the program. Sometimes the Player will get stuck
      * in the corner of an Entity, but that is out of my control.
@@ -178,7 +239,7 @@ public class Player extends Entity implements Moving {
         this.xVel = (this.move * X_SPEED); //based on direction
         this.yVel += Level.GRAVITY * dt; //y velocity is changed by gravity every step
         
-        onFloor = this.placeMeeting (this.x, this.y + 1, "gameClasses.Tile", "gameClasses.Border"); //if the Player is standing on top of a Tile
+        onFloor = this.placeMeeting (this.x, this.y + 1, Entity.SOLID_LAYERS); //if the Player is standing on top of a Tile
         
         /* HANDLE JUMPING */
         if (((onFloor) && (up)) && ((!this.isAttacking()) && (!this.isParrying()) && (!this.isCrouching))) {
@@ -189,43 +250,33 @@ public class Player extends Entity implements Moving {
         yVelPPF = this.yVel * dt;
         
         /* HANDLE X COLLISIONS */
-        if (this.placeMeeting (this.x + xVelPPF, this.y, "gameClasses.Tile", "gameClasses.Border")) { //if moving horizontally will collide with a Tile
+        if (this.placeMeeting (this.x + xVelPPF, this.y, Entity.SOLID_LAYERS)) { //if moving horizontally will collide with a Tile
             /* PERFECT PIXEL COLLISION */
-            while (!this.placeMeeting ((int) (this.x + Math.signum (this.xVel)), this.y, "gameClasses.Tile", "gameClasses.Border")) { 
-                this.x += (int) Math.signum (this.xVel); //it keeps moving by 1 pixel left or right until it is BESIDE the Tile
-                //it loops until the Player WILL collide (intersect) with the Tile, resulting in the Player stopping BESIDE it
-            } this.xVel = 0; //if collided, stop moving horizontally
+            this.x += Math.signum (xVelPPF) * this.sweepSolid (this.x + xVelPPF, this.y).distance; //move until it is BESIDE the Tile
+            this.xVel = 0; //if collided, stop moving horizontally
             xVelPPF = 0;
         } /* HANDLE Y COLLISIONS */ 
-        if (this.placeMeeting (this.x, this.y + yVelPPF, "gameClasses.Tile", "gameClasses.Border")) { //if moving vertically will collide with a Tile
+        if (this.placeMeeting (this.x, this.y + yVelPPF, Entity.SOLID_LAYERS)) { //if moving vertically will collide with a Tile
             /* PERFECT PIXEL COLLISION */
-            while (!this.placeMeeting (this.x, (int) (this.y + Math.signum (this.yVel)), "gameClasses.Tile", "gameClasses.Border")) {
-                this.y += (int) Math.signum (this.yVel); //it keeps moving by 1 pixel up or down until it is BESIDE the Tile
-                //it loops until the Player WILL collide (intersect) with the Tile, resulting in the Player stopping BESIDE it
-            } this.yVel = 0; //stop moving vertically if collided
+            this.y += Math.signum (yVelPPF) * this.sweepSolid (this.x, this.y + yVelPPF).distance; //move until it is BESIDE the Tile
+            this.yVel = 0; //stop moving vertically if collided
             yVelPPF = 0;
         }
         
         /* IF, FOR WHATEVER REASON THE PLAYER IS STUCK INSIDE A WALL, THIS WILL MOVE IT */
-        if (this.placeMeeting (this.x, this.y, "gameClasses.Tile", "gameClasses.Border")) { //if you are currently stuck
-            int xMoveLeft = 0, xMoveRight = 0;
-            int yMoveUp = 0, yMoveDown = 0;
+        if (this.placeMeeting (this.x, this.y, Entity.SOLID_LAYERS)) { //if you are currently stuck
+            int xMoveLeft = -this.pushOut (-1, 0), xMoveRight = this.pushOut (1, 0); //how far left or right to move
+            int yMoveUp, yMoveDown;
             
-            while (this.placeMeeting (this.x + xMoveRight, this.y, "gameClasses.Tile", "gameClasses.Border")) { //check how far right to move
-                xMoveRight++;
-            } while (this.placeMeeting (this.x + xMoveLeft, this.y, "gameClasses.Tile", "gameClasses.Border")) { //check left
-                xMoveLeft--;
-            } this.x += Math.min (Math.abs (xMoveLeft), xMoveRight) == Math.abs (xMoveLeft) ? xMoveLeft : xMoveRight; //take the shortest path
+            this.x += Math.min (Math.abs (xMoveLeft), xMoveRight) == Math.abs (xMoveLeft) ? xMoveLeft : xMoveRight; //take the shortest path
             
-            while (this.placeMeeting (this.x, this.y + yMoveDown, "gameClasses.Tile", "gameClasses.Border")) { //check how far down to move
-                yMoveDown++;
-            } while (this.placeMeeting (this.x, this.y + yMoveUp, "gameClasses.Tile", "gameClasses.Border")) { //check up
-                yMoveUp--;
-            } this.y += Math.min (Math.abs (yMoveUp), yMoveDown) == Math.abs (yMoveUp) ? yMoveUp : yMoveDown; //take the shortest path
+            yMoveUp = -this.pushOut (0, -1); //how far up or down to move, from where it is now
+            yMoveDown = this.pushOut (0, 1);
+            this.y += Math.min (Math.abs (yMoveUp), yMoveDown) == Math.abs (yMoveUp) ? yMoveUp : yMoveDown; //take the shortest path
         }
         
         /* IF THE PLAYER FALLS OUT OF THE MAP */
-        if ((!this.dead) && (this.placeMeeting (this.x, this.y + 1, "Bottom Border"))) {
+        if ((!this.dead) && (this.placeMeeting (this.x, this.y + 1, this.stage.getBottomBorder ()))) {
             this.kill ();
         }
         
@@ -233,19 +284,18 @@ public class Player extends Entity implements Moving {
         if (this.dead) {
             xVelPPF = 0;
             
-            if (!this.sprite.equals (Sprite.INVIS)) {
+            if (!this.animation.isPlaying (Sprite.INVIS)) {
               this.changeSprite ("Die");
             }
             
-            if (this.sprite.frameIndex == this.sprite.getLastIndex ()) {
-                this.sprite.frameIndex = 0; //reset the frame index for the static death sprites 
-                this.sprite = Sprite.INVIS;
+            if (this.animation.frameIndex == this.animation.getLastIndex ()) {
+                this.animation.change (Sprite.INVIS); //disappear once the death animation is over
             } 
         } else if (this.isThrowingSword) { //you can throw while in the airr
             xVelPPF = 0;
             this.changeSprite ("Throw");
             
-            if (this.sprite.frameIndex == this.sprite.getLastIndex ()) {
+            if (this.animation.frameIndex == this.animation.getLastIndex ()) {
                 this.isThrowingSword = false;
                 this.hasSword = false;
             }
@@ -264,7 +314,7 @@ public class Player extends Entity implements Moving {
                 this.changeSprite("Mid Attack");
             } else if (this.isLowAttacking) {
                 this.changeSprite("Low Attack");
-            } if (this.sprite.frameIndex == this.sprite.getLastIndex()) {
+            } if (this.animation.frameIndex == this.animation.getLastIndex ()) {
                 this.isHighAttacking = false;
                 this.isMidAttacking = false;
                 this.isLowAttacking = false;
@@ -288,7 +338,7 @@ public class Player extends Entity implements Moving {
                 this.changeSprite ("Run");
             }
         } if (xVelPPF != 0) { //deal with orientation
-            this.sprite.flipped = (xVelPPF < 0);
+            this.animation.flipped = (xVelPPF < 0);
         }
         
         /* UPDATE POSITIONS */
@@ -301,18 +351,18 @@ public class Player extends Entity implements Moving {
         this.updateRect ();
         
         /* UPDATE SPRITE */
-        this.sprite.updateImage ();
+        this.animation.advance (dt);
         
         //PROGRESS THRU LEVEL
         if (this.stage.level.moveDirection.equals ("RIGHT")) {
-            if (this.name.equals ("Left Player")) {
-                if (this.placeMeeting (this.x + 1, this.y, "Right Border")) {
+            if (this.leftPlayer) {
+                if (this.placeMeeting (this.x + 1, this.y, this.stage.getRightBorder ())) {
                     this.stage.level.stageUp ();
                 }
             }
         } else if (this.stage.level.moveDirection.equals ("LEFT")) {
-            if (this.name.equals ("Right Player")) {
-                if (this.placeMeeting (this.x - 1, this.y, "Left Border")) {
+            if (!this.leftPlayer) {
+                if (this.placeMeeting (this.x - 1, this.y, this.stage.getLeftBorder ())) {
                     this.stage.level.stageDown ();
                 }
             }
@@ -336,10 +386,12 @@ public class Player extends Entity implements Moving {
      * This method kills the Player (activates its death animation)
      */
     public void kill () {
+        if (!this.dead) { //swords keep killing a player while they touch, but they only die once
+            Sound.DEATH.play ();
+        }
         this.dead = true;
-        Sound.DEATH.play ();
         
-        if (this.name.equals ("Left Player")) {
+        if (this.leftPlayer) {
             if (this.stage.level.getStageIndex () != 0) {
                 this.stage.level.moveDirection = "LEFT";
             } else {
@@ -380,73 +432,73 @@ public class Player extends Entity implements Moving {
      */
     public void changeSprite (String spr) {
         if (spr.equals ("Idle")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_IDLE);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_IDLE);
             }
         } else if (spr.equals ("Run")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_RUN);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_RUN);
             }
         } else if (spr.equals ("Crouch")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_CROUCH);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_CROUCH);
             }
         } else if (spr.equals ("Jump")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_JUMP);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_JUMP);
             }
         } else if (spr.equals ("Die")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_DIE);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_DIE);
             }
         } else if (spr.equals ("High Attack")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_ATTACK_HIGH);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_ATTACK_HIGH);
             }
         } else if (spr.equals ("Mid Attack")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_ATTACK_MID);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_ATTACK_MID);
             }
         } else if (spr.equals ("Low Attack")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_ATTACK_LOW);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_ATTACK_LOW);
             }
         } else if (spr.equals ("High Parry")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_PARRY_HIGH);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_PARRY_HIGH);
             }
         } else if (spr.equals ("Mid Parry")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_PARRY_MID);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_PARRY_MID);
             }
         } else if (spr.equals ("Low Parry")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_PARRY_LOW);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_PARRY_LOW);
             }
         } else if (spr.equals ("Throw")) {
-            if (this.name.equals ("Left Player")) {
+            if (this.leftPlayer) {
                 super.changeSprite (Sprite.PLAYER_LEFT_THROW);
             } else {
                 super.changeSprite (Sprite.PLAYER_RIGHT_THROW);
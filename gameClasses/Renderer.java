@@ -0,0 +1,23 @@
+/*
+ * [Renderer.java]
+ * This file contains the Renderer interface.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+/**
+ * The Renderer interface signifies that something can put the frames made by the game loop on the screen.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public interface Renderer {
+    /**
+     * Shows a frame. This is called on the game loop's thread after every batch of ticks. The frame is reused for the
+     * next batch, so copy it (see FrameSnapshot.copyFrom) if it needs to be drawn after this returns.
+     * @param frame The frame to show.
+     */
+    public void present (FrameSnapshot frame);
+}
@@ -0,0 +1,91 @@
+/*
+ * [RingIndex.java]
+ * This file contains the counts that let one thread hand things to another through a ring of slots.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+/**
+ * A RingIndex keeps track of which slots of a ring are full, for a ring that exactly one thread posts to and exactly one
+ * thread takes from. The ring itself (arrays of whatever is being handed over, made up front) belongs to whoever uses
+ * the index; AudioCommandQueue, InputQueue and InputLatency all work this way.
+ * <p>
+ * The two threads only share two counts, so neither ever waits: the poster fills in slotToPost, then publish moves
+ * "posted" on, and the taker reads slotToTake, then remove moves "taken" on. Both are volatile, so whatever was written
+ * before a count moved is seen by whoever reads the count. If the ring is full, slotToPost says so instead of waiting,
+ * and the poster should drop what it had.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+class RingIndex {
+    private int capacity;
+    private volatile long posted = 0; //only the poster moves this
+    private volatile long taken = 0;  //only the taker moves this
+    private int dropped = 0; //only the poster changes this
+
+    /**
+     * This constructor makes the index of an empty ring.
+     * @param capacity How many slots the ring has. A power of 2, so wrapping around is a mask.
+     */
+    RingIndex (int capacity) {
+        if (Integer.bitCount (capacity) != 1) {
+            throw new IllegalArgumentException ("A ring needs a power of 2 slots, not " + capacity);
+        }
+        this.capacity = capacity;
+    }
+    /**
+     * slotToPost returns the slot the poster should fill in next. Only the ring's one poster may call this and publish.
+     * @return The slot, or -1 if the ring is full (which counts as a drop).
+     */
+    int slotToPost () {
+        long next = this.posted;
+
+        if (next - this.taken >= this.capacity) {
+            this.dropped++;
+            return -1;
+        } return (int) (next & (this.capacity - 1));
+    }
+    /**
+     * publish hands the slot the poster just filled in to the taker.
+     */
+    void publish () {
+        this.posted = this.posted + 1; //only the poster writes it, so this doesn't race
+    }
+    /**
+     * isEmpty checks if there is a slot to take. Only the ring's one taker may call this, and the ones below.
+     * @return If there are none.
+     */
+    boolean isEmpty () {
+        return this.taken == this.posted;
+    }
+    /**
+     * slotToTake returns the slot the taker should read next. Only call this if the ring isn't empty.
+     * @return The slot.
+     */
+    int slotToTake () {
+        return (int) (this.taken & (this.capacity - 1));
+    }
+    /**
+     * remove is done with the slot from slotToTake, so it can be posted to again.
+     */
+    void remove () {
+        this.taken = this.taken + 1; //only the taker writes it, so this doesn't race
+    }
+    /**
+     * clear throws away every slot that hasn't been taken. Only call this while nothing is taking (e.g. when the game
+     * loop is stopped).
+     */
+    void clear () {
+        this.taken = this.posted;
+    }
+    /**
+     * getDropped returns how many times slotToPost found the ring full.
+     * @return The number of drops.
+     */
+    int getDropped () {
+        return this.dropped;
+    }
+}
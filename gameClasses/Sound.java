@@ -8,30 +8,41 @@
 /** The classes used by the game. */
 package gameClasses;
 
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.AudioInputStream;
-
 import java.io.File;
 /**
- * Creates a new instance of sound effects and music.
+ * Creates a new instance of sound effects and music. Each sound effect is decoded once, and played on the AudioMixer, so
+ * the same sound can play over itself (e.g. both players swinging) and the game only ever opens one line to the sound
+ * card. Music is far too long to decode up front, so it is streamed from its file (see MusicStream) only while it plays.
  * Author: Dennis Chizhov
  * @since Jan 20 2019
  */
 public class Sound {
     
-    private Clip clipSave;
+    /** If sounds are loaded and played at all. Run with -Dsound=off to turn them off (e.g. on a machine without audio). */
+    private static final boolean ENABLED = !"off".equals (System.getProperty ("sound"));
+    
+    /** Pass this to loop to loop a sound until it is stopped. */
+    public static final int LOOP_CONTINUOUSLY = -1;
+    /** How many times at once the same sound can be playing. */
+    public static final int MAX_INSTANCES = 4;
+    /** How long music takes to fade in and out, in seconds. */
+    public static final float CROSSFADE_SECONDS = 1.5f;
+    
+    private short[] samples; //the decoded sound, shared by every voice playing it. null if it couldn't be loaded
+    private boolean decoded = false; //if decoding the sound has been tried
+    private boolean streamed; //if this is music, which is streamed instead of decoded
+    private MusicStream stream; //the music playing, if it's streamed
     
     private String soundName; // this is the name of the sound that will play
     private File soundFile;
     
     /* NOTE: YOU MAY NEED TO CHANGE THE DIRECTORIES */
     /** The music playing during the castle level. */
-    public static final Sound CASTLE_MUSIC = new Sound ("Sound/Music/Castle.wav");
+    public static final Sound CASTLE_MUSIC = new Sound ("Sound/Music/Castle.wav", true);
     /** The music playing during the forest level. */
-    public static final Sound FOREST_MUSIC = new Sound ("Sound/Music/Forest.wav");
+    public static final Sound FOREST_MUSIC = new Sound ("Sound/Music/Forest.wav", true);
     /** The music playing during the mountain level. */
-    public static final Sound MOUNTAIN_MUSIC = new Sound ("Sound/Music/Mountains.wav");
+    public static final Sound MOUNTAIN_MUSIC = new Sound ("Sound/Music/Mountains.wav", true);
     /** The death sound. */
     public static final Sound DEATH = new Sound ("Sound/Effects/Death.wav");
     /** When someone gets stabbed. */
@@ -44,39 +55,107 @@ public class Sound {
      * @param name The name of the sound file.
      */
     Sound (String name) {
+        this (name, false);
+    }
+    /**
+     * This constructor initalises the name of the sound, and whether it's music that should be streamed. Sounds aren't
+     * decoded until load is called or they are first played, and streamed sounds are never decoded.
+     * @param name The name of the sound file.
+     * @param streamed If the sound should be streamed from its file instead of decoded.
+     */
+    Sound (String name, boolean streamed) {
         this.soundName = name;
+        this.streamed = streamed;
         
         this.soundFile = new File (this.soundName); // placeholder to be replaced
-        
-        try {
-            this.clipSave = AudioSystem.getClip ();
-            this.clipSave.open (AudioSystem.getAudioInputStream(this.soundFile));
-        } catch (Exception e) {
-            System.out.println ("Something went wrong loading the sounds.");
-        }
+    }
+    /**
+     * load decodes the sound effects above, so Assets can get that out of the way on one of its threads instead of the
+     * first time each one is played.
+     */
+    static void load () {
+        DEATH.decode ();
+        HIT.decode ();
+        SWOOSH.decode ();
     }
     /**
      * loop will loop a sound file.
-     * @param n How long to loop it for. 
+     * @param n How many more times to play it after the first, or LOOP_CONTINUOUSLY to loop until it is stopped.
      */
     public void loop (int n) {
-        this.clipSave.loop (n);
+        short[] decoded;
+        
+        if (this.streamed) {
+            this.stream (n);
+            return;
+        } if ((decoded = this.decode ()) == null) {
+            return;
+        }
+        AudioMixer.get ().play (decoded, 1, n, MAX_INSTANCES);
     }
     /**
-     * play will play a sound file.
-     * @param fileName The name of the file to play.
+     * play will play a sound file, even if it is already playing.
      */
     public void play () {
-        if (!this.clipSave.isActive ()) {
-            this.clipSave.setMicrosecondPosition (0);
-            this.clipSave.start ();
+        this.play (1);
+    }
+    /**
+     * play will play a sound file at a different volume.
+     * @param gain How loud to play it: 1 is as loud as it was recorded.
+     */
+    public void play (float gain) {
+        short[] decoded;
+        
+        if (this.streamed) {
+            this.stream (0);
+            return;
+        } if ((decoded = this.decode ()) == null) {
+            return;
         }
+        AudioMixer.get ().play (decoded, gain, 0, MAX_INSTANCES);
     }
     /**
-     * stop will stop a current sound.
+     * stop will stop a current sound, everywhere it is playing. Music fades out instead of stopping right away.
      */
     public void stop () {
-        this.clipSave.stop ();
-        this.clipSave.setMicrosecondPosition (0); //reset
+        short[] decoded;
+        
+        if (this.stream != null) {
+            AudioMixer.get ().stopMusic (this.stream, CROSSFADE_SECONDS);
+            this.stream = null;
+        } if ((decoded = this.decode ()) == null) {
+            return;
+        }
+        AudioMixer.get ().stopAll (decoded);
+    }
+    /*
+     * decode decodes the sound the first time it's needed. Assets may be doing this on another thread at the same time,
+     * so whoever is second waits for it.
+     * @return The samples, or null if they can't be played.
+     */
+    private synchronized short[] decode () {
+        if ((!this.decoded) && (ENABLED) && (!this.streamed)) {
+            try {
+                this.samples = AudioMixer.decode (this.soundFile);
+            } catch (Exception e) {
+                System.out.println ("Something went wrong loading the sounds.");
+                this.samples = null; //it can't be played
+            }
+        }
+        this.decoded = true;
+        return this.samples;
+    }
+    /*
+     * stream starts streaming music, fading out any other music. Like a Clip, music that is already playing just keeps
+     * playing.
+     * @param n How many more times to play it after the first, or LOOP_CONTINUOUSLY.
+     */
+    private void stream (int n) {
+        if ((!ENABLED) || ((this.stream != null) && (AudioMixer.get ().isPlaying (this.stream)))) {
+            return;
+        }
+        
+        this.stream = new MusicStream (this.soundFile, n); //opened on its own thread, so this never waits on the disk
+        AudioMixer.get ().startMusic (this.stream, CROSSFADE_SECONDS);
     }
 }
\ No newline at end of file
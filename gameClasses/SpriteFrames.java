@@ -0,0 +1,87 @@
+/*
+ * [SpriteFrames.java]
+ * This file contains the frames of one animation, loaded and ready to draw.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import javax.imageio.ImageIO;
+
+import java.awt.image.BufferedImage;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * SpriteFrames holds everything that is loaded from an animation's folder: the frames in the screen's format, the same
+ * frames mirrored, the collision box of each frame, and the exact shape (HitMask) of each frame both ways. Loading these is the slow part of making a Sprite, so Assets
+ * loads them on its worker threads while the menu is up. This class must never touch Sprite: Sprite's static
+ * initializer waits for these to be loaded, so loading them must not need it. (Workers do run that initializer when they
+ * build a level, but only after every animation is loaded; see Assets.level.)
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+class SpriteFrames {
+    final BufferedImage[] images;   //the frames, in order
+    final BufferedImage[] mirrored; //the same frames, facing the other way
+    final int[][] hitboxes;         //{x, y, width, height} of the opaque part of each frame
+    final HitMask[] masks;          //the shape of each frame
+    final HitMask[] mirroredMasks;  //the shape of each mirrored frame
+
+    /**
+     * This constructor loads the frames of an animation, from the atlas if it has them or else one file at a time.
+     * @param folder The animation's folder, e.g. "Images/Players/Left/run".
+     */
+    SpriteFrames (String folder) {
+        Atlas atlas = Atlas.get ();
+
+        if ((atlas != null) && (atlas.getFrames (folder) != null)) { //the atlas has the frames and their collision detectors already
+            this.images = atlas.getFrames (folder);
+            this.hitboxes = atlas.getHitboxes (folder);
+        } else {
+            this.images = new BufferedImage [new File (folder).listFiles ().length];
+            this.hitboxes = new int [this.images.length][4];
+
+            for (int i = 0; i < this.images.length; i++) {
+                File frameFile = new File (folder + "/" + Integer.toString (i) + ".png"); //.listFiles () may not load them in order...
+                try {
+                    this.images [i] = ImageIO.read (frameFile);
+                    this.hitboxes [i] = HitboxCache.get (frameFile, this.images [i]); //measured on the frame exactly as it was decoded
+                } catch (IOException e) {
+                    System.out.println ("Oopsie whoopsie! There was a problem loading a sprite!");
+                }
+            }
+        }
+
+        //convert the frames to the screen's format, and mirror them now so turning around never has to touch a pixel
+        this.mirrored = new BufferedImage [this.images.length];
+        this.masks = new HitMask [this.images.length];
+        this.mirroredMasks = new HitMask [this.images.length];
+        for (int i = 0; i < this.images.length; i++) {
+            if (this.images [i] != null) {
+                int width = this.images [i].getWidth (), height = this.images [i].getHeight ();
+                byte[] alphas = ImageLoader.getAlphas (this.images [i]);
+                
+                this.masks [i] = new HitMask (alphas, width, height, false);
+                this.mirroredMasks [i] = new HitMask (alphas, width, height, true);
+                this.images [i] = ImageLoader.toCompatible (this.images [i]);
+                this.mirrored [i] = ImageLoader.mirrored (this.images [i]);
+            }
+        }
+    }
+    /**
+     * This constructor makes frames for another folder whose frames are exactly the same, sharing everything that was
+     * loaded instead of loading it again. It is still its own SpriteFrames, so the two folders stay different animations.
+     * @param copy The frames that were loaded.
+     */
+    SpriteFrames (SpriteFrames copy) {
+        this.images = copy.images;
+        this.mirrored = copy.mirrored;
+        this.hitboxes = copy.hitboxes;
+        this.masks = copy.masks;
+        this.mirroredMasks = copy.mirroredMasks;
+    }
+}
@@ -9,13 +9,13 @@
 package gameClasses;
 
 import java.awt.Graphics;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 
 import java.util.ArrayList;
-import java.util.Scanner;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 
 /**
  * A Stage is a stage in the level: both pstages start in the middle of the Level (which is a stage) and they gradually move
@@ -24,8 +24,17 @@ import java.io.FileNotFoundException;
  * @since 28 Dec 2018
  */
 public class Stage {
-    private ArrayList <Entity> things = new ArrayList <Entity> (); //the things in the stage to be drawn
+    private Entity[] entities = new Entity [64]; //every Entity on the stage, indexed by handle. Empty handles are null
+    private int handleCount = 0; //the next handle to give out. Handles are never given out twice
+    private ArrayList <Entity> movers = new ArrayList <Entity> (); //the Entities that implement Moving, in the order they step
     private BufferedImage background; 
+    private BufferedImage staticLayer; //the background with every Tile and Border already drawn on it, made when first needed
+    private TileGrid tileGrid = new TileGrid (0); //which cells of the map have a Tile, for fast collisions
+    private Sweep sweep = new Sweep (); //reused by every call to sweep, so moving never allocates
+    
+    private Player leftPlayer, rightPlayer;
+    private Sword leftSword, rightSword;
+    private Border leftBorder, rightBorder, topBorder, bottomBorder; //the level boundaries
     private int plrLeftX, plrLeftY, plrRightX, plrRightY; //where each player spawns
     
     /** The level this stage is on. */
@@ -36,8 +45,9 @@ public class Stage {
      * @param mapFile The tile map to load, in .txt format.
      * @param bg The background image.
      * @param level The level to which the Stage is on.
+     * @throws IOException If the map or its palette can't be read or has a mistake in it.
      */
-    Stage (File mapFile, BufferedImage bg, Level level) {
+    Stage (File mapFile, BufferedImage bg, Level level) throws IOException {
         this.loadMap (mapFile);
         this.background = bg;
         this.level = level;
@@ -49,51 +59,213 @@ public class Stage {
     public BufferedImage getBG () {
         return this.background;
     }
+    /**
+     * getStaticLayer returns the Stage's background with every Tile and Border already drawn on top. None of them ever
+     * move, so they are drawn together once, the first time they are needed after the map is loaded, and every frame
+     * after that only has to copy one image and draw the Players and Swords over it.
+     * @return The static layer, the size of the screen.
+     */
+    public BufferedImage getStaticLayer () {
+        if (this.staticLayer == null) {
+            Graphics g;
+            
+            this.staticLayer = ImageLoader.createCompatible (PlatformerGame.WIDTH, PlatformerGame.HEIGHT, Transparency.OPAQUE);
+            g = this.staticLayer.createGraphics ();
+            if (this.background != null) {
+                g.drawImage (this.background, 0, 0, null);
+            }
+            for (int i = 0; i < this.handleCount; i++) {
+                if ((this.entities [i] != null) && (!isDynamic (this.entities [i]))) {
+                    this.entities [i].draw (g);
+                }
+            } g.dispose ();
+        } return this.staticLayer;
+    }
+    /**
+     * releaseStaticLayer lets go of the static layer to save memory. It is drawn again the next time it is needed.
+     */
+    public void releaseStaticLayer () {
+        this.staticLayer = null;
+    }
+    /**
+     * isDynamic checks if an Entity can move, so it has to be drawn every frame instead of being part of the static layer.
+     * @param e The Entity to check.
+     * @return If the Entity implements Moving.
+     */
+    public static boolean isDynamic (Entity e) {
+        return e instanceof Moving;
+    }
     /**
      * drawAll will draw everything in the stage.
      * @param g The Graphics object to be used.
      */
     public void drawAll (Graphics g) {
-        for (Entity e : this.things) {
-            e.draw (g);
+        for (int i = 0; i < this.handleCount; i++) {
+            if (this.entities [i] != null) {
+                this.entities [i].draw (g);
+            }
         }
     }
     /** 
-     * The add method will add an Entity to the Stage, just like adding a JComponent to a JFrame.
+     * The add method will add an Entity to the Stage, just like adding a JComponent to a JFrame. The Entity is given the
+     * next handle, after every one given out so far. Handles are never given out twice, so an old handle can never find
+     * a different Entity. An Entity that is already on a Stage is left where it is.
      * @param e The Entity to be added.
      */
     public void add (Entity e) {
-        things.add (e);
+        int handle = this.handleCount;
+        
+        if (e.handle >= 0) { //already added
+            return;
+        }
+        if (handle == this.entities.length) {
+            Entity[] bigger = new Entity [this.entities.length * 2];
+            System.arraycopy (this.entities, 0, bigger, 0, this.entities.length);
+            this.entities = bigger;
+        }
+        
+        this.entities [handle] = e;
+        this.handleCount = handle + 1;
+        e.handle = handle;
+        
+        if (e instanceof Moving) {
+            this.movers.add (e);
+        }
+        
+        /* Remember the Entities that get looked up every tick */
+        if (e instanceof Player) {
+            if (((Player) e).isLeftPlayer ()) {
+                this.leftPlayer = (Player) e;
+            } else {
+                this.rightPlayer = (Player) e;
+            }
+        } else if (e instanceof Sword) {
+            if (((Sword) e).isLeftSword ()) {
+                this.leftSword = (Sword) e;
+            } else {
+                this.rightSword = (Sword) e;
+            }
+        }
     }
     /**
-     * The remove method will remove something from the Stage.
-     * @param n A list of names to remove.
+     * The remove method will remove something from the Stage. Its handle is left empty for good.
+     * @param e The Entity to remove.
      */
-    public void remove (String...n) {
-        for (String name : n) {
-            for (int i = this.things.size () - 1; i > -1; i--) {
-                if (this.things.get (i).name.equals (name)) {
-                    this.things.remove (i);
-                }
-            }
+    public void remove (Entity e) {
+        if ((e == null) || (e.handle < 0) || (this.entities [e.handle] != e)) {
+            return; //not on this stage
         }
+        
+        this.entities [e.handle] = null;
+        e.handle = -1;
+        this.movers.remove (e);
+        
+        if (e == this.leftPlayer) {
+            this.leftPlayer = null;
+        } else if (e == this.rightPlayer) {
+            this.rightPlayer = null;
+        } else if (e == this.leftSword) {
+            this.leftSword = null;
+        } else if (e == this.rightSword) {
+            this.rightSword = null;
+        }
+    }
+    /**
+     * get returns the Entity with a handle.
+     * @param handle The Entity's handle.
+     * @return The Entity, or null if nothing has that handle.
+     */
+    public Entity get (int handle) {
+        return ((handle < 0) || (handle >= this.handleCount)) ? null : this.entities [handle];
     }
     /**
      * The step method invokes all the Entities' step methods.
      */
     public void step () {
-        for (Entity e : this.things) {
-            if (e instanceof Moving) {
-                ((Moving) e).step ();
-            }
+        for (int i = 0; i < this.movers.size (); i++) {
+            ((Moving) this.movers.get (i)).step ();
         }
     }
     /**
-     * getContents () returns an array of everything on the stage.
-     * @return An Entity[] containing all the entities on the stage.
+     * getHandleCount returns one more than the highest handle given out, so every Entity on the stage can be looped over
+     * with get, in order of handle, without making an array.
+     * @return The number of handles to loop over. Some of them may be empty.
+     */
+    public int getHandleCount () {
+        return this.handleCount;
+    }
+    /**
+     * getTileGrid returns the grid of which cells on the Stage have a Tile.
+     * @return The Stage's TileGrid.
+     */
+    public TileGrid getTileGrid () {
+        return this.tileGrid;
+    }
+    /**
+     * meeting checks if a rectangle intersects anything on the given collision layers. Tiles are found with the TileGrid,
+     * and Borders, Players and Swords are looked up directly, so this never has to look at every Entity.
+     * @param x The x coordinate of the rectangle (top-left).
+     * @param y The y coordinate of the rectangle (top-left).
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param mask The collision layers to check, e.g. Entity.SOLID_LAYERS.
+     * @param self An Entity to ignore (usually the one asking), or null.
+     * @return If the rectangle intersects something on one of the layers.
+     */
+    public boolean meeting (int x, int y, int width, int height, int mask, Entity self) {
+        if (((mask & Entity.TILE_LAYER) != 0) && (this.tileGrid.overlaps (x, y, width, height))) {
+            return true;
+        } if ((mask & Entity.BORDER_LAYER) != 0) {
+            if ((intersects (this.leftBorder, self, x, y, width, height)) || (intersects (this.rightBorder, self, x, y, width, height))
+                || (intersects (this.topBorder, self, x, y, width, height)) || (intersects (this.bottomBorder, self, x, y, width, height))) {
+                return true;
+            }
+        } if ((mask & Entity.PLAYER_LAYER) != 0) {
+            if ((intersects (this.leftPlayer, self, x, y, width, height)) || (intersects (this.rightPlayer, self, x, y, width, height))) {
+                return true;
+            }
+        } if ((mask & Entity.SWORD_LAYER) != 0) {
+            if ((intersects (this.leftSword, self, x, y, width, height)) || (intersects (this.rightSword, self, x, y, width, height))) {
+                return true;
+            }
+        } return false;
+    }
+    /*
+     * intersects checks if an Entity's collision box intersects a rectangle.
+     * @param e The Entity to check, or null.
+     * @param self The Entity that is asking, which never intersects itself.
+     * @return If e exists, isn't self, and intersects the rectangle.
+     */
+    private static boolean intersects (Entity e, Entity self, int x, int y, int width, int height) {
+        return (e != null) && (e != self) && (e.intersects (x, y, width, height));
+    }
+    /**
+     * sweep moves a rectangle in a straight line along one axis and finds how far it can go before it would intersect a
+     * Tile or a Border, ending up right BESIDE whatever it hit. See TileGrid.sweep.
+     * @param x The x coordinate of the rectangle (top-left).
+     * @param y The y coordinate of the rectangle (top-left).
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param dx How far to move horizontally. Either dx or dy has to be 0.
+     * @param dy How far to move vertically.
+     * @return The Stage's Sweep, holding how far the rectangle got. The same Sweep is reused by the next call.
      */
-    public Entity[] getContents () {
-        return this.things.toArray (new Entity[this.things.size ()]);
+    public Sweep sweep (int x, int y, int width, int height, int dx, int dy) {
+        return this.tileGrid.sweep (x, y, width, height, dx, dy, this.sweep);
+    }
+    /**
+     * pushOut finds the fewest pixels a rectangle has to move in one direction to stop intersecting every Tile and Border.
+     * See TileGrid.pushOut.
+     * @param x The x coordinate of the rectangle (top-left).
+     * @param y The y coordinate of the rectangle (top-left).
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param dx The direction to push in horizontally: -1, 0 or 1. Either dx or dy has to be 0.
+     * @param dy The direction to push in vertically: -1, 0 or 1.
+     * @return How many pixels to move. 0 if the rectangle isn't stuck.
+     */
+    public int pushOut (int x, int y, int width, int height, int dx, int dy) {
+        return this.tileGrid.pushOut (x, y, width, height, dx, dy);
     }
     /**
      * resetPlayers () places the Players at their spawn locations for the current stage.
@@ -107,7 +279,8 @@ public class Stage {
         leftPlayer.resetPlayer (plrLeftX, plrLeftY);
         rightPlayer.resetPlayer (plrRightX, plrRightY);
         
-        this.remove ("Right Sword", "Left Sword");
+        this.remove (this.rightSword);
+        this.remove (this.leftSword);
         
         //just create new swords
         leftSword = new Sword (leftPlayer, Sprite.LEFT_SWORD, "Left Sword", this);
@@ -121,124 +294,133 @@ public class Stage {
      * @return The left player's reference.
      */
     public Player getLeftPlayer () {
-        for (Entity e : this.things ) {
-            if (e.name.equals ("Left Player")) {
-                return (Player) e;
-            }
-        } return null;
+        return this.leftPlayer;
     } 
     /**
      * getRightPlayer returns the right player.
      * @return The right player's reference.
      */
     public Player getRightPlayer () {
-        for (Entity e : this.things ) {
-            if (e.name.equals ("Right Player")) {
-                return (Player) e;
-            }
-        } return null;
+        return this.rightPlayer;
     }
     /**
-     * loadMap () loads a tile map from a text file. <b>DO NOT USE A COMMA OR SPACE TO REPRESENT A TILE.</b>
-     * @param file The folder containing the map data.
+     * getLeftSword returns the left player's sword.
+     * @return The left sword's reference.
      */
-    public void loadMap (File file) {
-        try {
-            Scanner s = new Scanner (file);
-            String fileName = file.getName ();
-            String levelName = fileName.substring (fileName.indexOf ('_') + 1, fileName.indexOf ('.'));
-            
-            int y = 0;
-            
-            /* ADD LEVEL BORDERS */
-            this.add (new Border (-200, 0, 200, PlatformerGame.HEIGHT, "Left Border", this));
-            this.add (new Border (32 * Tile.TILE_LENGTH, 0, 200, PlatformerGame.HEIGHT, "Right Border", this));
-            this.add (new Border (0, -200, PlatformerGame.WIDTH, 200, "Top Border", this)); 
-            this.add (new Border (0, (int) (PlatformerGame.HEIGHT * 1.3), PlatformerGame.WIDTH, 200, "Bottom Border", this)); 
-            
-            /* ADD REGULAR TILES */
-            while (s.hasNext ()) {
-                String currentRow = s.nextLine ();
-                for (int x = 0; x < currentRow.length (); x++) { //loop through the current line
-                    char t = currentRow.charAt (x); //the current character
+    public Sword getLeftSword () {
+        return this.leftSword;
+    }
+    /**
+     * getRightSword returns the right player's sword.
+     * @return The right sword's reference.
+     */
+    public Sword getRightSword () {
+        return this.rightSword;
+    }
+    /**
+     * getLeftBorder returns the border on the left edge of the stage.
+     * @return The left border.
+     */
+    public Border getLeftBorder () {
+        return this.leftBorder;
+    }
+    /**
+     * getRightBorder returns the border on the right edge of the stage.
+     * @return The right border.
+     */
+    public Border getRightBorder () {
+        return this.rightBorder;
+    }
+    /**
+     * getBottomBorder returns the border below the stage. Players touching it fell out of the map.
+     * @return The bottom border.
+     */
+    public Border getBottomBorder () {
+        return this.bottomBorder;
+    }
+    /*
+     * addSolid adds a Border's collision box to the TileGrid's solids, so sweeps and push-outs stop at it.
+     * @param b The Border to add.
+     */
+    private void addSolid (Border b) {
+        this.tileGrid.addSolid (b.getRectX (), b.getRectY (), b.getRectWidth (), b.getRectHeight ());
+    }
+    /**
+     * loadMap () loads a tile map, compiling it from its text file first if it has to be (see TileMap). Which character
+     * is which tile comes from the level's palette. <b>DO NOT USE A COMMA OR SPACE TO REPRESENT A TILE.</b>
+     * @param file The map's text file.
+     * @throws IOException If the map or its palette can't be read or has a mistake in it.
+     */
+    public void loadMap (File file) throws IOException {
+        TileMap map = TileMap.load (file);
+        int y = 0;
+        
+        this.staticLayer = null; //the tiles are changing, so the static layer has to be drawn again
+        
+        this.tileGrid = new TileGrid (map.getRows ());
+        
+        /* ADD LEVEL BORDERS */
+        this.leftBorder = new Border (-200, 0, 200, PlatformerGame.HEIGHT, "Left Border", this);
+        this.rightBorder = new Border (32 * Tile.TILE_LENGTH, 0, 200, PlatformerGame.HEIGHT, "Right Border", this);
+        this.topBorder = new Border (0, -200, PlatformerGame.WIDTH, 200, "Top Border", this);
+        this.bottomBorder = new Border (0, (int) (PlatformerGame.HEIGHT * 1.3), PlatformerGame.WIDTH, 200, "Bottom Border", this);
+        this.add (this.leftBorder);
+        this.add (this.rightBorder);
+        this.add (this.topBorder); 
+        this.add (this.bottomBorder); 
+        
+        /* ADD REGULAR TILES */
+        for (int row = 0; row < map.getRows (); row++) {
+            for (int x = 0; x < map.getColumns (); x++) { //loop through the current row
+                Sprite tileSprite = map.getSprite (x, row);
+                
+                if (tileSprite != null) {
+                    this.add (new Tile (x * Tile.TILE_LENGTH, y, tileSprite, this));
+                    this.tileGrid.fill (x, row);
+                }
+                
+                /* 
+                 * Creating a player:
+                 * Player (int x, int y, Sprite spr, String name, char up, char left, char right, char throwSwordKey, 
+                 *        char highAttackKey, char medAttackKey, char lowAttackKey, char highParry, char medParry, char lowParry, Stage stage) {
+                 */
+                
+                if (map.isLeftSpawn (x, row)) {
+                    Sword leftSword;
+                    Player leftPlayer;
+                    
+                    this.plrLeftX = x * Tile.TILE_LENGTH;
+                    this.plrLeftY = y;
+                    
+                    leftPlayer = new Player (x * Tile.TILE_LENGTH, y, Sprite.PLAYER_LEFT_IDLE, "Left Player", 'W', 'A', 'D', 'S', 'E', 
+                                             'R', 'T', 'Y', 'F', 'G', 'H', this);
+                    leftSword = new Sword (leftPlayer, Sprite.LEFT_SWORD, "Left Sword", this);
                     
-                    if (levelName.equals ("Castle")) {
-                        if (t == '#') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.CASTLE_STONE_BRICK, this));
-                        } else if (t == '@') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.CASTLE_GROUND, this));
-                        } else if (t == '$') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.CASTLE_CARPET, this));
-                        }
-                    } else if (levelName.equals ("Forest")) {
-                        if (t == '@') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.FOREST_SOIL_TOP, this));
-                        } else if (t == '#') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.FOREST_DEEP_SOIL, this));
-                        } else if (t == 'm') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.FOREST_ROCK_MIDDLE, this));
-                        } else if (t == 's') { //latin "sin"
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.FOREST_ROCK_LEFT, this));
-                        } else if (t == 'd') { //latin "dex"
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.FOREST_ROCK_RIGHT, this));
-                        } else if (t == 'r') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.FOREST_ROCK_WHOLE, this));
-                        } else if (t == 'w') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.FOREST_HUT_WALL, this));
-                        } else if (t == 'i') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.FOREST_HUT_INSIDE, this));
-                        } 
-                    } else if (levelName.equals ("Mountains")) {
-                        if (t == 'c') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.MOUNTAINS_CLOUD, this));
-                        } else if (t == '^') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.MOUNTAINS_ROCK_RIGHT_CORNER, this));
-                        } else if (t == 'r') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.MOUNTAINS_ROCK, this));
-                        } else if (t == 'l') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.MOUNTAINS_ROCK_LEFT_CORNER, this));
-                        } else if (t == '#') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.MOUNTAINS_ROCK_LEFT_WALL, this));
-                        } else if (t == 's') {
-                            this.add (new Tile (x * Tile.TILE_LENGTH, y, Sprite.MOUNTAINS_ROCK_SINGLE, this));
-                        }
-                    } /* 
-                     * Creating a player:
-                     * Player (int x, int y, Sprite spr, String name, char up, char left, char right, char throwSwordKey, 
-                     *        char highAttackKey, char medAttackKey, char lowAttackKey, char highParry, char medParry, char lowParry, Stage stage) {
-                     */
+                    this.add (leftPlayer);
+                    this.add (leftSword);
+                } else if (map.isRightSpawn (x, row)) {
+                    Sword rightSword;
+                    Player rightPlayer;
                     
-                    if (t == '%') {
-                        Sword leftSword;
-                        Player leftPlayer;
-                        
-                        this.plrLeftX = x * Tile.TILE_LENGTH;
-                        this.plrLeftY = y;
-                        
-                        leftPlayer = new Player (x * Tile.TILE_LENGTH, y, Sprite.PLAYER_LEFT_IDLE, "Left Player", 'W', 'A', 'D', 'S', 'E', 
-                                                 'R', 'T', 'Y', 'F', 'G', 'H', this);
-                        leftSword = new Sword (leftPlayer, Sprite.LEFT_SWORD, "Left Sword", this);
-                        
-                        this.add (leftPlayer);
-                        this.add (leftSword);
-                    } else if (t == 'x') {
-                        Sword rightSword;
-                        Player rightPlayer;
-                        
-                        this.plrRightX = x * Tile.TILE_LENGTH;
-                        this.plrRightY = y;
-                        
-                        //The right player starts flipped.
-                        rightPlayer = new Player (x * Tile.TILE_LENGTH, y, Sprite.PLAYER_RIGHT_IDLE, "Right Player", (char)(38), (char)(37), (char)(39), (char)(40),  (char)(10), 
-                                                  'O', 'P', '[', 'L', ';', (char)(222), this);
-                        rightSword = new Sword(rightPlayer, Sprite.RIGHT_SWORD, "Right Sword", this);
-                        
-                        this.add (rightPlayer);
-                        this.add (rightSword);
-                    }
-                    //STILL NEED TO ADD PLAYERS AND BORDERS       
-                } y += Tile.TILE_LENGTH; //increase y value
-            } s.close ();
-        } catch (FileNotFoundException e) { System.out.println ("Oopsie woopsie! we made a fuckie wucki!"); } // reconsider the purpose of your existance andy
+                    this.plrRightX = x * Tile.TILE_LENGTH;
+                    this.plrRightY = y;
+                    
+                    //The right player starts flipped.
+                    rightPlayer = new Player (x * Tile.TILE_LENGTH, y, Sprite.PLAYER_RIGHT_IDLE, "Right Player", (char)(38), (char)(37), (char)(39), (char)(40),  (char)(10), 
+                                              'O', 'P', '[', 'L', ';', (char)(222), this);
+                    rightSword = new Sword(rightPlayer, Sprite.RIGHT_SWORD, "Right Sword", this);
+                    
+                    this.add (rightPlayer);
+                    this.add (rightSword);
+                }
+            } y += Tile.TILE_LENGTH; //increase y value
+        }
+        
+        /* MERGE THE TILES INTO BIG RECTANGLES FOR COLLISIONS, THEN ADD THE BORDERS AS SOLIDS TOO */
+        this.tileGrid.merge ();
+        this.addSolid (this.leftBorder);
+        this.addSolid (this.rightBorder);
+        this.addSolid (this.topBorder);
+        this.addSolid (this.bottomBorder);
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+/*
+ * [Sweep.java]
+ * This file contains the result of sweeping a rectangle across a Stage.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+/**
+ * A Sweep is what happens when a rectangle is moved in a straight line across a Stage: how far it got before it touched
+ * something solid, and which way that something was facing. Stage reuses one Sweep for every query, so copy out anything
+ * you need before sweeping again.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class Sweep {
+    /** How many pixels the rectangle moved before it ended up right BESIDE something solid (never inside it). */
+    public int distance;
+    /** If the rectangle hit something before moving all the way. */
+    public boolean hit;
+    /** The time of impact, as a fraction of the whole move. This is 1 if nothing was hit. */
+    public double time;
+    /** The x part of the contact normal (the direction the hit surface faces): -1, 0 or 1. */
+    public int normalX;
+    /** The y part of the contact normal: -1 (a floor), 0 or 1 (a ceiling). */
+    public int normalY;
+}
@@ -17,7 +17,8 @@ public class Sword extends Entity implements Moving {
     private static final int THROW_FPS = 10; //how fast the sword is animated when being thrown
     private int xDis, yDis;
     private Player player;
-    private String playerToCheck;        // the other player
+    private boolean leftSword;           // if this sword belongs to the left player
+    private boolean opponentIsLeft;      // which player the sword can hurt
     
     private boolean flying = false; //if the sword is being thrown 
     
@@ -34,168 +35,182 @@ public class Sword extends Entity implements Moving {
         super (player, spr, stage);
         this.player = player;
         this.name = name;
+        this.layer = Entity.SWORD_LAYER;
+        this.leftSword = player.isLeftPlayer ();
+        this.opponentIsLeft = !player.isLeftPlayer (); // if left player then right player else left player
         this.calculateDisplacement();
-        
-        try {
-            this.playerToCheck = this.player.name.equals ("Left Player") ? "Right Player" : "Left Player"; // if left player then right player else left player
-        } catch (NullPointerException e) {} //sometimes it just happens....
     } 
+    /**
+     * isLeftSword checks which player the sword started with.
+     * @return true if this is the left player's sword.
+     */
+    public boolean isLeftSword () {
+        return this.leftSword;
+    }
+    /*
+     * getOpponent returns the player the sword can hurt. This is looked up every time, because when the swords are
+     * made, the other player might not be on the Stage yet.
+     * @return The other player.
+     */
+    private Player getOpponent () {
+        return this.opponentIsLeft ? this.stage.getLeftPlayer () : this.stage.getRightPlayer ();
+    }
     /*
      * calculatDisplacement finds by how many pixels the sword sprite should be displaced.
      */
     private void calculateDisplacement () { 
-        if ((this.player.sprite.equals (Sprite.PLAYER_LEFT_IDLE)) || (this.player.sprite.equals (Sprite.PLAYER_RIGHT_IDLE))) {
-            this.sprite.frameIndex = 0;
-            if (this.player.sprite.frameIndex == 0) {
+        if ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_IDLE)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_IDLE))) {
+            this.animation.frameIndex = 0;
+            if (this.player.animation.frameIndex == 0) {
                 this.xDis = 80;
                 this.yDis = 25;
             }
-            if ((this.player.sprite.frameIndex == 1) || (this.player.sprite.frameIndex == 3)) { 
+            if ((this.player.animation.frameIndex == 1) || (this.player.animation.frameIndex == 3)) { 
                 this.xDis = 71;
                 this.yDis = 24;
             }
-            if (this.player.sprite.frameIndex == 2) {
+            if (this.player.animation.frameIndex == 2) {
                 this.xDis = 70;
                 this.yDis = 26;
             }    
         }
-        else if ((this.player.sprite.equals (Sprite.PLAYER_LEFT_JUMP)) || (this.player.sprite.equals (Sprite.PLAYER_RIGHT_JUMP))) {
-            this.sprite.frameIndex = 7;
+        else if ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_JUMP)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_JUMP))) {
+            this.animation.frameIndex = 7;
             this.xDis = 60;
             this.yDis = 5;
         }
-        else if ((this.player.sprite.equals (Sprite.PLAYER_LEFT_CROUCH)) || (this.player.sprite.equals (Sprite.PLAYER_RIGHT_CROUCH))) {
-            this.sprite.frameIndex = 7;
+        else if ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_CROUCH)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_CROUCH))) {
+            this.animation.frameIndex = 7;
             this.xDis = 30;
             this.yDis = 50;
         }
-        else if ((this.player.sprite.equals (Sprite.PLAYER_LEFT_RUN)) || (this.player.sprite.equals (Sprite.PLAYER_RIGHT_RUN))) {
-            this.sprite.frameIndex = 0;
-            if (this.player.sprite.frameIndex == 0) {    
+        else if ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_RUN)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_RUN))) {
+            this.animation.frameIndex = 0;
+            if (this.player.animation.frameIndex == 0) {    
                 this.xDis = 80;
                 this.yDis = 26;
             }
-            else if (this.player.sprite.frameIndex == 1) { 
+            else if (this.player.animation.frameIndex == 1) { 
                 this.xDis = 79;
                 this.yDis = 23;
             }
-            else if (this.player.sprite.frameIndex == 2) {
+            else if (this.player.animation.frameIndex == 2) {
                 this.xDis = 81;
                 this.yDis = 20;
             }
-            else if (this.player.sprite.frameIndex == 3) {
+            else if (this.player.animation.frameIndex == 3) {
                 this.xDis = 79;
                 this.yDis = 23;
             }
         }
-        else if ((this.player.sprite.equals (Sprite.PLAYER_LEFT_DIE)) || (this.player.sprite.equals (Sprite.PLAYER_RIGHT_DIE))) {
+        else if ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_DIE)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_DIE))) {
             this.player = null;
         }
-        else if ((this.player.isThrowing ()) && ((this.player.sprite.equals (Sprite.PLAYER_LEFT_THROW)) || (this.player.sprite.equals (Sprite.PLAYER_RIGHT_THROW)))) {
-                if (this.player.sprite.frameIndex == 0) { 
-                    this.sprite.frameIndex = 5;
+        else if ((this.player.isThrowing ()) && ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_THROW)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_THROW)))) {
+                if (this.player.animation.frameIndex == 0) { 
+                    this.animation.frameIndex = 5;
                     this.xDis = 19;
                     this.yDis = -40;
                 }
-                else if (this.player.sprite.frameIndex == 1) { 
-                    this.sprite.frameIndex = 6;
+                else if (this.player.animation.frameIndex == 1) { 
+                    this.animation.frameIndex = 6;
                     this.xDis = 22;
                     this.yDis = -50;
                 }
-                else if (this.player.sprite.frameIndex == 2) {
-                    this.sprite.frameIndex = 7;
+                else if (this.player.animation.frameIndex == 2) {
+                    this.animation.frameIndex = 7;
                     this.xDis = 58;
                     this.yDis = -43;
                 }
-                else if (this.player.sprite.frameIndex == 3) {
+                else if (this.player.animation.frameIndex == 3) {
                     this.yDis = -40;
                     this.flying = true;
                     this.player = null;
                 }
         }
-        else if ((this.player.sprite.equals (Sprite.PLAYER_LEFT_ATTACK_HIGH)) || (this.player.sprite.equals (Sprite.PLAYER_RIGHT_ATTACK_HIGH))) {
-            if (this.player.sprite.frameIndex == 0) { 
-                this.sprite.frameIndex = 5;
+        else if ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_ATTACK_HIGH)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_ATTACK_HIGH))) {
+            if (this.player.animation.frameIndex == 0) { 
+                this.animation.frameIndex = 5;
                 this.xDis = -12;
                 this.yDis = -40;
             }
-            else if (this.player.sprite.frameIndex == 1) { 
-                this.sprite.frameIndex = 6;
+            else if (this.player.animation.frameIndex == 1) { 
+                this.animation.frameIndex = 6;
                 this.xDis = 22;
                 this.yDis = -50;
             }
-            else if (this.player.sprite.frameIndex == 2) {
-                this.sprite.frameIndex = 7;
+            else if (this.player.animation.frameIndex == 2) {
+                this.animation.frameIndex = 7;
                 this.xDis = 58;
                 this.yDis = -43;
             }
-            else if (this.player.sprite.frameIndex == 3) {
-                this.sprite.frameIndex = 0;
+            else if (this.player.animation.frameIndex == 3) {
+                this.animation.frameIndex = 0;
                 this.xDis = 76;
                 this.yDis = 25;
             }
-            else if (this.player.sprite.frameIndex == 4) { 
-                this.sprite.frameIndex = 0;
+            else if (this.player.animation.frameIndex == 4) { 
+                this.animation.frameIndex = 0;
                 this.xDis = 78;
                 this.yDis = 35;
             }
         }
-        else if ((this.player.sprite.equals (Sprite.PLAYER_LEFT_ATTACK_MID)) || (this.player.sprite.equals (Sprite.PLAYER_RIGHT_ATTACK_MID))) {
-            if ((this.player.sprite.frameIndex == 0) || (this.player.sprite.frameIndex == 6)) { 
-                this.sprite.frameIndex = 4;
+        else if ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_ATTACK_MID)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_ATTACK_MID))) {
+            if ((this.player.animation.frameIndex == 0) || (this.player.animation.frameIndex == 6)) { 
+                this.animation.frameIndex = 4;
                 this.xDis = -15;
                 this.yDis = 30;
             }
-            else if ((this.player.sprite.frameIndex == 1) || (this.player.sprite.frameIndex == 5)) { 
-                this.sprite.frameIndex = 3;
+            else if ((this.player.animation.frameIndex == 1) || (this.player.animation.frameIndex == 5)) { 
+                this.animation.frameIndex = 3;
                 this.xDis = -5;
                 this.yDis = 55;
             }
-            else if ((this.player.sprite.frameIndex == 2) || (this.player.sprite.frameIndex == 4)) {
-                this.sprite.frameIndex = 2;
+            else if ((this.player.animation.frameIndex == 2) || (this.player.animation.frameIndex == 4)) {
+                this.animation.frameIndex = 2;
                 this.xDis = 25;
                 this.yDis = 63;
             }
-            else if (this.player.sprite.frameIndex == 3) { 
-                this.sprite.frameIndex = 0;
+            else if (this.player.animation.frameIndex == 3) { 
+                this.animation.frameIndex = 0;
                 this.xDis = 106;
                 this.yDis = 25;
             }
         }
-        else if ((this.player.sprite.equals (Sprite.PLAYER_LEFT_ATTACK_LOW)) || (this.player.sprite.equals (Sprite.PLAYER_RIGHT_ATTACK_LOW))) {
-            if (this.player.sprite.frameIndex == 0) {  
-                this.sprite.frameIndex = 4;
+        else if ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_ATTACK_LOW)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_ATTACK_LOW))) {
+            if (this.player.animation.frameIndex == 0) {  
+                this.animation.frameIndex = 4;
                 this.xDis = 22;
                 this.yDis = 55;
             }
-            else if ((this.player.sprite.frameIndex == 1) || (this.player.sprite.frameIndex == 5)) { 
-                this.sprite.frameIndex = 3;
+            else if ((this.player.animation.frameIndex == 1) || (this.player.animation.frameIndex == 5)) { 
+                this.animation.frameIndex = 3;
                 this.xDis = 25;
                 this.yDis = 53;
             }
-            else if ((this.player.sprite.frameIndex == 2) || (this.player.sprite.frameIndex == 4)) { 
-                this.sprite.frameIndex = 1;
+            else if ((this.player.animation.frameIndex == 2) || (this.player.animation.frameIndex == 4)) { 
+                this.animation.frameIndex = 1;
                 this.xDis = 83;
                 this.yDis = 70;
             }
-            else if (this.player.sprite.frameIndex == 3) { 
-                this.sprite.frameIndex = 0;
+            else if (this.player.animation.frameIndex == 3) { 
+                this.animation.frameIndex = 0;
                 this.xDis = 124;
                 this.yDis = 34;
             }
         }
-        else if ((this.player.sprite.equals (Sprite.PLAYER_LEFT_PARRY_HIGH)) || (this.player.sprite.equals (Sprite.PLAYER_LEFT_PARRY_HIGH))) {
-            this.sprite.frameIndex = 3;
+        else if ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_PARRY_HIGH)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_PARRY_HIGH))) {
+            this.animation.frameIndex = 3;
             this.xDis = 0;
             this.yDis = 0;
         }
-        else if ((this.player.sprite.equals (Sprite.PLAYER_LEFT_PARRY_MID)) || (this.player.sprite.equals (Sprite.PLAYER_LEFT_PARRY_MID))) {
-            this.sprite.frameIndex = 3;
+        else if ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_PARRY_MID)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_PARRY_MID))) {
+            this.animation.frameIndex = 3;
             this.xDis = 23;
             this.yDis = 32;
         }
-        else if ((this.player.sprite.equals (Sprite.PLAYER_LEFT_PARRY_LOW)) || (this.player.sprite.equals (Sprite.PLAYER_LEFT_PARRY_LOW))) {
-            this.sprite.frameIndex = 3;
+        else if ((this.player.animation.isPlaying (Sprite.PLAYER_LEFT_PARRY_LOW)) || (this.player.animation.isPlaying (Sprite.PLAYER_RIGHT_PARRY_LOW))) {
+            this.animation.frameIndex = 3;
             this.xDis = 21;
             this.yDis = 63;
         }
@@ -208,15 +223,15 @@ public class Sword extends Entity implements Moving {
          *       make xDis positive and add the sword sprite's width
          */
         if (this.player != null) {
-            if ((!this.sprite.flipped) && (this.player.sprite.flipped)) {
-                this.sprite.flipped = true;
+            if ((!this.animation.flipped) && (this.player.animation.flipped)) {
+                this.animation.flipped = true;
             }
-            else if ((this.sprite.flipped) && (!this.player.sprite.flipped)) {
-                this.sprite.flipped = false; 
+            else if ((this.animation.flipped) && (!this.player.animation.flipped)) {
+                this.animation.flipped = false; 
             }
             
-            if (this.sprite.flipped) { //putting this here because everytime this is called xDis gets set to positive, so this will turn it back to negative
-                this.xDis = this.player.sprite.getWidth () - this.xDis - this.sprite.getWidth ();
+            if (this.animation.flipped) { //putting this here because everytime this is called xDis gets set to positive, so this will turn it back to negative
+                this.xDis = this.player.animation.getWidth () - this.xDis - this.animation.getWidth ();
             } 
         }
     }
@@ -228,80 +243,76 @@ public class Sword extends Entity implements Moving {
         double dt = this.stage.level.getDeltaTime ();
         
         if (this.flying) { //if flying through the air because it was thrown
-            this.sprite.fps = THROW_FPS;
-            this.xVel = this.sprite.flipped ? -THROW_VEL : THROW_VEL;
+            this.animation.fps = THROW_FPS;
+            this.xVel = this.animation.flipped ? -THROW_VEL : THROW_VEL;
             xVelPPF = this.xVel * dt;
             
-            if (this.placeMeeting (this.x + xVelPPF, this.y, playerToCheck)) {
-              Player otherPlayer = this.playerToCheck.equals ("Left Player") ? this.stage.getLeftPlayer () : this.stage.getRightPlayer ();
+            Player otherPlayer = this.getOpponent ();
+            if (this.pixelMeeting (this.x + xVelPPF, this.y, otherPlayer)) { //only the blade itself counts, not the clear corners around it
               if (!otherPlayer.midParrying ()) {
+                if (!otherPlayer.isDead ()) {
+                    Sound.HIT.play ();
+                }
                 otherPlayer.kill ();
-                Sound.HIT.play ();
               }
                 
                 this.flying = false;
                 xVelPPF = 0;
-            } if (this.placeMeeting (this.x + xVelPPF, this.y, "gameClasses.Tile", "gameClasses.Border")) {
+            } if (this.placeMeeting (this.x + xVelPPF, this.y, Entity.SOLID_LAYERS)) {
                 this.flying = false;
                 xVelPPF = 0;
             }
             
             //if, for some reason, you throw the sword directly into the left border at point blank range...
-            if (this.placeMeeting (this.x + xVelPPF, this.y, "Left Border")) {
+            if (this.placeMeeting (this.x + xVelPPF, this.y, this.stage.getLeftBorder ())) {
               this.x = 0;
             } //now do the same thing but for the right border
-            if (this.placeMeeting (this.x + xVelPPF, this.y, "Right Border")) {
-              this.x = PlatformerGame.WIDTH - this.sprite.getWidth ();
+            if (this.placeMeeting (this.x + xVelPPF, this.y, this.stage.getRightBorder ())) {
+              this.x = PlatformerGame.WIDTH - this.animation.getWidth ();
             }
             
             this.x += xVelPPF;
         } else if (this.player == null) { //if dropped because it hit something
-            this.sprite.fps = 0;
+            this.animation.fps = 0;
             this.yVel += Level.GRAVITY * dt;
             yVelPPF = this.yVel * dt;
             
-            this.sprite.frameIndex = 0;
+            this.animation.frameIndex = 0;
             
             /* HANDLE Y COLLISIONS (becuase this is when the sword is dropping, ie going DOWNWARDS) */ 
-            if (this.placeMeeting (this.x, this.y + yVelPPF, "gameClasses.Tile", "gameClasses.Border")) { //if moving vertically will collide with a Tile
+            if (this.placeMeeting (this.x, this.y + yVelPPF, Entity.SOLID_LAYERS)) { //if moving vertically will collide with a Tile
                 /* PERFECT PIXEL COLLISION */
-                while (!this.placeMeeting (this.x, (int) (this.y + Math.signum (this.yVel)), "gameClasses.Tile", "gameClasses.Border")) {
-                    this.y += (int) Math.signum (this.yVel); //it keeps moving by 1 pixel up or down until it is BESIDE the Tile
-                    //it loops until the Player WILL collide (intersect) with the Tile, resulting in the Player stopping BESIDE it
-                } this.yVel = 0; //stop moving vertically if collided
+                this.y += Math.signum (yVelPPF) * this.sweepSolid (this.x, this.y + yVelPPF).distance; //move until it is BESIDE the Tile
+                this.yVel = 0; //stop moving vertically if collided
                 yVelPPF = 0;
             }
             
             /* IF, FOR WHATEVER REASON THE SWORD IS STUCK INSIDE SOMETHING, THIS WILL MOVE IT */
-            if (this.placeMeeting (this.x, this.y, "gameClasses.Tile", "gameClasses.Border")) { //if currently stuck
-                int yMoveUp = 0, yMoveDown = 0;
+            if (this.placeMeeting (this.x, this.y, Entity.SOLID_LAYERS)) { //if currently stuck
+                int yMoveUp = -this.pushOut (0, -1), yMoveDown = this.pushOut (0, 1); //how far up or down to move
                 
-                while (this.placeMeeting (this.x, this.y + yMoveDown, "gameClasses.Tile", "gameClasses.Border")) { //check how far down to move
-                    yMoveDown++;
-                } while (this.placeMeeting (this.x, this.y + yMoveUp, "gameClasses.Tile", "gameClasses.Border")) { //check up
-                    yMoveUp--;
-                } this.y += Math.min (Math.abs (yMoveUp), yMoveDown) == Math.abs (yMoveUp) ? yMoveUp : yMoveDown; //take the shortest path
+                this.y += Math.min (Math.abs (yMoveUp), yMoveDown) == Math.abs (yMoveUp) ? yMoveUp : yMoveDown; //take the shortest path
             } 
             
             //check if a player picks up the dropped sword
-            if (this.placeMeeting (this.x, this.y, "Left Player")) {
+            if (this.placeMeeting (this.x, this.y, this.stage.getLeftPlayer ())) {
                 if (!this.stage.getLeftPlayer ().hasSword ()) {
                     this.player = this.stage.getLeftPlayer ();
-                    this.playerToCheck = "Right Player";
+                    this.opponentIsLeft = false;
                     this.player.pickUpSword ();
                 }
-            } else if (this.placeMeeting (this.x, this.y, "Right Player")) {
+            } else if (this.placeMeeting (this.x, this.y, this.stage.getRightPlayer ())) {
                 if (!this.stage.getRightPlayer ().hasSword ()) {
                     this.player = this.stage.getRightPlayer ();
-                    this.playerToCheck = "Left Player";
+                    this.opponentIsLeft = true;
                     this.player.pickUpSword ();
                 }
             }
             
             this.y += yVelPPF;
         } else { //must mean a player is holding on to the sword
-            Player otherPlayer = this.playerToCheck.equals ("Left Player") ? this.stage.getLeftPlayer () : this.stage.getRightPlayer ();
-            this.sprite.fps = 0;
+            Player otherPlayer = this.getOpponent ();
+            this.animation.fps = 0;
             this.calculateDisplacement(); // check every step
             
             try { //once the sword is thrown, this.player is set to null IN THIS SCOPE!! afterward, this scope is not run.
@@ -309,22 +320,28 @@ public class Sword extends Entity implements Moving {
                 this.y = this.player.y + yDis;
                 
                 /* MELEE COMBAT */
-                if (this.placeMeeting (this.x, this.y, this.playerToCheck)) {
+                if (this.pixelMeeting (this.x, this.y, otherPlayer)) { //only if the blade actually touches them
                     
                     /* SEPARATED INTO MULTIPLE IF STATEMENTS FOR READABILITY, I KNOW THESE COULD ALL BE IN ONE */
                     if ((this.player.highAttacking ()) && (!otherPlayer.highParrying ())) { //high
+                        if (!otherPlayer.isDead ()) { //only the hit that kills them is heard
+                            Sound.HIT.play ();
+                        }
                         otherPlayer.kill ();
-                        Sound.HIT.play ();
                     } if ((this.player.midAttacking ()) && (!otherPlayer.midParrying ())) { //mid 
+                        if (!otherPlayer.isDead ()) {
+                            Sound.HIT.play ();
+                        }
                         otherPlayer.kill ();
-                        Sound.HIT.play ();
                     } if ((this.player.lowAttacking ()) && (!otherPlayer.lowParrying ())) { //low
+                        if (!otherPlayer.isDead ()) {
+                            Sound.HIT.play ();
+                        }
                         otherPlayer.kill ();
-                        Sound.HIT.play ();
                     }
                 }
             } catch (NullPointerException e) {}
-        } this.sprite.updateImage (); //update the sprite
+        } this.animation.advance (dt); //update the sprite
         this.updateRect ();
     }
 }
@@ -25,6 +25,7 @@ public class Tile extends Entity {
      */
     Tile (int x, int y, Sprite cranberry, Stage stage) {
         super (x, y, cranberry, stage);
+        this.layer = Entity.TILE_LAYER;
     } 
     /**
      * This constructor initializes the Tile, along with a custom name.
@@ -36,5 +37,6 @@ public class Tile extends Entity {
      */
     Tile (int x, int y, Sprite spr, String name, Stage stage) {
         super (x, y, spr, name, stage);
+        this.layer = Entity.TILE_LAYER;
     }
 }
\ No newline at end of file
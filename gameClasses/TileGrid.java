@@ -0,0 +1,355 @@
+/*
+ * [TileGrid.java]
+ * This file contains the class for a grid of which tiles are filled in.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.util.Arrays;
+
+/**
+ * TileGrid remembers which cells of a Stage's tile map have a Tile in them. Checking if a rectangle hits a Tile only
+ * needs to look at the few cells the rectangle covers, instead of every Entity on the Stage.
+ * <p>
+ * Once the map is loaded, merge joins touching Tiles into as few big rectangles as it can, so that a wall or a floor is
+ * one solid instead of dozens. The rectangles are kept as plain arrays (one array per edge), along with any other solid
+ * rectangles that aren't on the grid, like the Borders. Sweeps and push-outs work on these rectangles, so a wall is
+ * crossed in one jump. The Tiles themselves are still drawn one by one; this only changes collisions.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class TileGrid {
+    /** How many tiles wide every tile map is. */
+    public static final int COLUMNS = 32;
+
+    private int rows;
+    private boolean[] solid; //row by row, true if there is a Tile in the cell
+    private int[] cellRect; //row by row, which merged rectangle each cell is part of, or -1 if the cell is empty
+
+    private int solidCount = 0; //how many solid rectangles there are
+    private int tileRects = 0; //rectangles below this are merged Tiles, the rest were added with addSolid
+    private int[] lefts = new int [16], tops = new int [16], rights = new int [16], bottoms = new int [16]; //in pixels, right and bottom exclusive
+
+    /**
+     * This constructor creates an empty grid.
+     * @param rows How many rows of tiles the grid has.
+     */
+    TileGrid (int rows) {
+        this.rows = rows;
+        this.solid = new boolean [rows * COLUMNS];
+        this.cellRect = new int [rows * COLUMNS];
+        Arrays.fill (this.cellRect, -1);
+    }
+    /**
+     * getRows returns how many rows of tiles the grid has.
+     * @return The number of rows.
+     */
+    public int getRows () {
+        return this.rows;
+    }
+    /**
+     * fill marks a cell as having a Tile in it. Cells outside the grid are ignored. Call merge once every cell is filled.
+     * @param column The column of the cell.
+     * @param row The row of the cell.
+     */
+    public void fill (int column, int row) {
+        if ((column >= 0) && (column < COLUMNS) && (row >= 0) && (row < this.rows)) {
+            this.solid [row * COLUMNS + column] = true;
+        }
+    }
+    /**
+     * isSolid checks if a cell has a Tile in it.
+     * @param column The column of the cell.
+     * @param row The row of the cell.
+     * @return If there is a Tile in the cell. Cells outside the grid are empty.
+     */
+    public boolean isSolid (int column, int row) {
+        return (column >= 0) && (column < COLUMNS) && (row >= 0) && (row < this.rows) && (this.solid [row * COLUMNS + column]);
+    }
+    /**
+     * merge joins the filled cells into rectangles. It goes through the grid row by row, and every cell that isn't part of
+     * a rectangle yet starts a new one, which is stretched right as far as it can go and then down for as long as every
+     * cell under it is free. This throws away any solids added with addSolid, so add those afterwards.
+     */
+    public void merge () {
+        this.solidCount = 0;
+        Arrays.fill (this.cellRect, -1);
+
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                int width = 1, height = 1, id;
+
+                if ((!this.solid [row * COLUMNS + column]) || (this.cellRect [row * COLUMNS + column] >= 0)) {
+                    continue;
+                }
+
+                while ((column + width < COLUMNS) && (this.isFree (column + width, row))) { //stretch right
+                    width++;
+                }
+                while ((row + height < this.rows) && (this.isFreeRow (column, width, row + height))) { //then down
+                    height++;
+                }
+
+                id = this.addRect (column * Tile.TILE_LENGTH, row * Tile.TILE_LENGTH, width * Tile.TILE_LENGTH, height * Tile.TILE_LENGTH);
+                for (int r = row; r < row + height; r++) {
+                    Arrays.fill (this.cellRect, r * COLUMNS + column, r * COLUMNS + column + width, id);
+                }
+            }
+        } this.tileRects = this.solidCount;
+    }
+    /**
+     * addSolid adds a solid rectangle that isn't part of the grid, like a Border. These are checked by every sweep and
+     * push-out, so there should only be a few.
+     * @param x The x coordinate of the rectangle (top-left).
+     * @param y The y coordinate of the rectangle (top-left).
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     */
+    public void addSolid (int x, int y, int width, int height) {
+        this.addRect (x, y, width, height);
+    }
+    /**
+     * getSolidCount returns how many solid rectangles there are, counting merged Tiles and anything added with addSolid.
+     * @return The number of solid rectangles.
+     */
+    public int getSolidCount () {
+        return this.solidCount;
+    }
+    /**
+     * getTileRectCount returns how many rectangles the Tiles were merged into.
+     * @return The number of merged Tile rectangles.
+     */
+    public int getTileRectCount () {
+        return this.tileRects;
+    }
+    /**
+     * getSolid returns one of the solid rectangles. The merged Tiles come first (ids below getTileRectCount), then
+     * anything added with addSolid.
+     * @param id Which rectangle, from 0 to getSolidCount () - 1.
+     * @return {x, y, width, height} of the rectangle, in pixels.
+     */
+    public int[] getSolid (int id) {
+        return new int[] {this.lefts [id], this.tops [id], this.rights [id] - this.lefts [id], this.bottoms [id] - this.tops [id]};
+    }
+    /**
+     * overlaps checks if a rectangle <b>intersects</b> any Tile, the same way Rectangle.intersects would. Touching a Tile
+     * side by side doesn't count.
+     * @param x The x coordinate of the rectangle (top-left).
+     * @param y The y coordinate of the rectangle (top-left).
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @return If the rectangle intersects a Tile.
+     */
+    public boolean overlaps (int x, int y, int width, int height) {
+        int firstColumn, lastColumn, firstRow, lastRow;
+
+        if ((width <= 0) || (height <= 0)) {
+            return false;
+        }
+
+        /* The cells covered by the rectangle, cut down to the ones inside the grid */
+        firstColumn = Math.max (Math.floorDiv (x, Tile.TILE_LENGTH), 0);
+        lastColumn = Math.min (Math.floorDiv (x + width - 1, Tile.TILE_LENGTH), COLUMNS - 1);
+        firstRow = Math.max (Math.floorDiv (y, Tile.TILE_LENGTH), 0);
+        lastRow = Math.min (Math.floorDiv (y + height - 1, Tile.TILE_LENGTH), this.rows - 1);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                if (this.solid [row * COLUMNS + column]) {
+                    return true;
+                }
+            }
+        } return false;
+    }
+    /**
+     * sweep moves a rectangle in a straight line along one axis and finds how far it can go before it would intersect a
+     * solid. Instead of moving one pixel at a time, it works out the time of impact from the lines of cells and the other
+     * solids in the rectangle's path, so the cost depends on how many tiles are crossed, not how many pixels. Like the
+     * old pixel loops, the rectangle ends up right BESIDE whatever it hit.
+     * @param x The x coordinate of the rectangle (top-left).
+     * @param y The y coordinate of the rectangle (top-left).
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param dx How far to move horizontally. Either dx or dy has to be 0.
+     * @param dy How far to move vertically.
+     * @param result Where to put how far the rectangle got.
+     * @return result.
+     */
+    public Sweep sweep (int x, int y, int width, int height, int dx, int dy, Sweep result) {
+        boolean horizontal = (dx != 0);
+        int dir = horizontal ? Integer.signum (dx) : Integer.signum (dy);
+        int reach = Math.abs (horizontal ? dx : dy);
+        int pos = horizontal ? x : y, size = horizontal ? width : height; //along the move
+        int across = horizontal ? y : x, span = horizontal ? height : width; //sideways to the move
+        int first = reach + 1; //the first step at which the rectangle would intersect something
+
+        if ((reach > 0) && (width > 0) && (height > 0)) {
+            int lines = horizontal ? COLUMNS : this.rows; //lines of cells crossed by the move
+            int crossLines = horizontal ? this.rows : COLUMNS;
+            int fromCross = Math.max (Math.floorDiv (across, Tile.TILE_LENGTH), 0);
+            int toCross = Math.min (Math.floorDiv (across + span - 1, Tile.TILE_LENGTH), crossLines - 1);
+            int line = Math.floorDiv ((dir > 0) ? pos + 1 : pos + size - 2, Tile.TILE_LENGTH); //nearest line after one step
+            int lastLine = Math.floorDiv ((dir > 0) ? pos + reach + size - 1 : pos - reach, Tile.TILE_LENGTH); //furthest line reached
+
+            /* Tiles: the lines are checked nearest first, so the first one with a Tile in it has the one that gets hit */
+            for (; (first > reach) && ((line - lastLine) * dir <= 0); line += dir) {
+                if ((line < 0) || (line >= lines)) {
+                    continue;
+                }
+                for (int cross = fromCross; cross <= toCross; cross++) {
+                    int id = horizontal ? this.cellRect [cross * COLUMNS + line] : this.cellRect [line * COLUMNS + cross];
+
+                    if (id >= 0) {
+                        first = Math.min (first, Math.max (1, enterAt (pos, size, this.start (id, horizontal), this.end (id, horizontal), dir)));
+                    }
+                }
+            }
+
+            /* Everything off the grid, like the Borders */
+            for (int id = this.tileRects; id < this.solidCount; id++) {
+                if ((this.start (id, !horizontal) < across + span) && (across < this.end (id, !horizontal))) {
+                    int start = this.start (id, horizontal), end = this.end (id, horizontal);
+                    int enter = Math.max (1, enterAt (pos, size, start, end, dir));
+
+                    if ((enter < leaveAt (pos, size, start, end, dir)) && (enter < first)) {
+                        first = enter;
+                    }
+                }
+            }
+        }
+
+        result.hit = (first <= reach);
+        result.distance = result.hit ? first - 1 : reach;
+        result.time = (reach == 0) ? 1 : (double) result.distance / reach;
+        result.normalX = (result.hit && horizontal) ? -dir : 0;
+        result.normalY = (result.hit && !horizontal) ? -dir : 0;
+        return result;
+    }
+    /**
+     * pushOut finds the fewest pixels a rectangle has to move in one direction to stop intersecting every solid. It jumps
+     * straight past every rectangle it is inside of, then checks again where it lands, so it only takes a few checks even
+     * when the rectangle is deep inside a wall.
+     * @param x The x coordinate of the rectangle (top-left).
+     * @param y The y coordinate of the rectangle (top-left).
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param dx The direction to push in horizontally: -1, 0 or 1. Either dx or dy has to be 0.
+     * @param dy The direction to push in vertically: -1, 0 or 1.
+     * @return How many pixels to move. 0 if the rectangle isn't stuck.
+     */
+    public int pushOut (int x, int y, int width, int height, int dx, int dy) {
+        boolean horizontal = (dx != 0);
+        int dir = horizontal ? dx : dy;
+        int pos = horizontal ? x : y, size = horizontal ? width : height; //along the push
+        int across = horizontal ? y : x, span = horizontal ? height : width; //sideways to the push
+        int moved = 0;
+
+        if ((dir == 0) || (width <= 0) || (height <= 0)) {
+            return 0;
+        }
+
+        while (true) {
+            int at = pos + moved * dir;
+            int free = moved; //the first step at which everything overlapping now is left behind
+            int fromLine = Math.floorDiv (at, Tile.TILE_LENGTH), toLine = Math.floorDiv (at + size - 1, Tile.TILE_LENGTH);
+            int fromCross = Math.floorDiv (across, Tile.TILE_LENGTH), toCross = Math.floorDiv (across + span - 1, Tile.TILE_LENGTH);
+
+            for (int line = fromLine; line <= toLine; line++) {
+                for (int cross = fromCross; cross <= toCross; cross++) {
+                    int id = horizontal ? this.rectAt (line, cross) : this.rectAt (cross, line);
+
+                    if (id >= 0) {
+                        free = Math.max (free, leaveAt (pos, size, this.start (id, horizontal), this.end (id, horizontal), dir));
+                    }
+                }
+            }
+            for (int id = this.tileRects; id < this.solidCount; id++) {
+                if ((this.start (id, !horizontal) < across + span) && (across < this.end (id, !horizontal))
+                    && (this.start (id, horizontal) < at + size) && (at < this.end (id, horizontal))) {
+                    free = Math.max (free, leaveAt (pos, size, this.start (id, horizontal), this.end (id, horizontal), dir));
+                }
+            }
+
+            if (free == moved) {
+                return moved;
+            } moved = free;
+        }
+    }
+    /*
+     * rectAt returns the merged rectangle a cell is part of.
+     * @return The rectangle's id, or -1 if the cell is empty or outside the grid.
+     */
+    private int rectAt (int column, int row) {
+        return ((column >= 0) && (column < COLUMNS) && (row >= 0) && (row < this.rows)) ? this.cellRect [row * COLUMNS + column] : -1;
+    }
+    /*
+     * isFree checks if a cell has a Tile that isn't part of a merged rectangle yet.
+     */
+    private boolean isFree (int column, int row) {
+        return (this.solid [row * COLUMNS + column]) && (this.cellRect [row * COLUMNS + column] < 0);
+    }
+    /*
+     * isFreeRow checks if a run of cells in a row all have Tiles that aren't part of a merged rectangle yet.
+     */
+    private boolean isFreeRow (int column, int width, int row) {
+        for (int c = column; c < column + width; c++) {
+            if (!this.isFree (c, row)) {
+                return false;
+            }
+        } return true;
+    }
+    /*
+     * addRect adds a solid rectangle to the arrays, making them bigger if they are full.
+     * @return The rectangle's id.
+     */
+    private int addRect (int x, int y, int width, int height) {
+        if (this.solidCount == this.lefts.length) {
+            int size = this.solidCount * 2;
+            this.lefts = Arrays.copyOf (this.lefts, size);
+            this.tops = Arrays.copyOf (this.tops, size);
+            this.rights = Arrays.copyOf (this.rights, size);
+            this.bottoms = Arrays.copyOf (this.bottoms, size);
+        }
+
+        this.lefts [this.solidCount] = x;
+        this.tops [this.solidCount] = y;
+        this.rights [this.solidCount] = x + width;
+        this.bottoms [this.solidCount] = y + height;
+        return this.solidCount++;
+    }
+    /*
+     * start returns where a solid rectangle starts along an axis: its left edge if horizontal, otherwise its top edge.
+     */
+    private int start (int id, boolean horizontal) {
+        return horizontal ? this.lefts [id] : this.tops [id];
+    }
+    /*
+     * end returns where a solid rectangle ends along an axis (exclusive): its right edge if horizontal, otherwise its bottom edge.
+     */
+    private int end (int id, boolean horizontal) {
+        return horizontal ? this.rights [id] : this.bottoms [id];
+    }
+    /*
+     * enterAt works out the first step at which a rectangle moving along a line starts overlapping a solid span.
+     * @param pos Where the rectangle starts.
+     * @param size How long the rectangle is along the line.
+     * @param start Where the solid span starts.
+     * @param end Where the solid span ends (exclusive).
+     * @param dir The direction of the move, 1 or -1.
+     * @return The step (which may be 0 or less if they already overlap).
+     */
+    private static int enterAt (int pos, int size, int start, int end, int dir) {
+        return (dir > 0) ? start - pos - size + 1 : pos - end + 1;
+    }
+    /*
+     * leaveAt works out the first step at which a rectangle moving along a line stops overlapping a solid span. The
+     * parameters are the same as enterAt's.
+     * @return The step.
+     */
+    private static int leaveAt (int pos, int size, int start, int end, int dir) {
+        return (dir > 0) ? end - pos : pos + size - start;
+    }
+}
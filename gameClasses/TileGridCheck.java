@@ -0,0 +1,205 @@
+/*
+ * [TileGridCheck.java]
+ * This file contains checks that the TileGrid's merged rectangles, sweeps and push-outs match the tile maps pixel for pixel.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Random;
+
+/**
+ * TileGridCheck loads every shipped tile map into a TileGrid and checks it against the map itself. The merged
+ * rectangles have to cover exactly the cells with a Tile, each one once. Then random rectangles are swept and pushed
+ * out, and each answer is compared with moving the rectangle one pixel at a time and checking every cell and Border it
+ * touches, which is slow but obviously right. The random rectangles are the same every run. If a check fails, it says
+ * which one and exits with 1.
+ * Usage: <code>java gameClasses.TileGridCheck [probes per map]</code>
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class TileGridCheck {
+    private static final String[] LEVELS = {"Castle", "Forest", "Mountains"};
+    private static final int STAGES = 5;
+
+    /* Solids off the grid, where Stage puts its Borders: {x, y, width, height} */
+    private static final int[][] BORDERS = {
+        {-200, 0, 200, PlatformerGame.HEIGHT},
+        {TileGrid.COLUMNS * Tile.TILE_LENGTH, 0, 200, PlatformerGame.HEIGHT},
+        {0, -200, PlatformerGame.WIDTH, 200},
+        {0, (int) (PlatformerGame.HEIGHT * 1.3), PlatformerGame.WIDTH, 200}
+    };
+
+    private static int checks = 0; //how many checks have passed
+    private static long probes = 0, hits = 0; //how many sweeps were checked, and how many of them hit something
+
+    /**
+     * main checks every map.
+     * @param args How many random rectangles to try on each map (20000 if not given).
+     * @throws IOException If a map can't be loaded.
+     */
+    public static void main (String[] args) throws IOException {
+        int count = (args.length > 0) ? Integer.parseInt (args [0]) : 20000;
+        Random random = new Random (1);
+
+        for (String level : LEVELS) {
+            for (int stage = 0; stage < STAGES; stage++) {
+                String name = stage + "_" + level;
+                TileMap map = TileMap.load (new File ("TileMaps/" + level + "/" + name + ".txt"));
+                boolean[][] cells = cellsOf (map);
+                TileGrid grid = gridOf (cells);
+
+                checkMerge (name, grid, cells);
+                checkSweeps (name, grid, cells, random, count);
+            }
+        }
+        System.out.println ("All " + checks + " tile grid checks passed (" + probes + " sweeps and push-outs, " + hits + " hits).");
+    }
+
+    /*
+     * checkMerge checks that the merged rectangles are made of whole cells, only cover cells with a Tile, and cover every
+     * one of those exactly once.
+     */
+    private static void checkMerge (String name, TileGrid grid, boolean[][] cells) {
+        int[][] covered = new int [cells.length][TileGrid.COLUMNS];
+        int solidCells = 0;
+
+        for (int id = 0; id < grid.getTileRectCount (); id++) {
+            int[] rect = grid.getSolid (id);
+
+            for (int value : rect) {
+                if (value % Tile.TILE_LENGTH != 0) {
+                    fail (name + ": merged rectangle " + id + " isn't made of whole cells");
+                }
+            }
+            for (int row = rect [1] / Tile.TILE_LENGTH; row < (rect [1] + rect [3]) / Tile.TILE_LENGTH; row++) {
+                for (int column = rect [0] / Tile.TILE_LENGTH; column < (rect [0] + rect [2]) / Tile.TILE_LENGTH; column++) {
+                    if ((row < 0) || (row >= cells.length) || (column < 0) || (column >= TileGrid.COLUMNS) || (!cells [row][column])) {
+                        fail (name + ": merged rectangle " + id + " covers cell (" + column + ", " + row + "), which has no Tile");
+                    }
+                    covered [row][column]++;
+                }
+            }
+        }
+
+        for (int row = 0; row < cells.length; row++) {
+            for (int column = 0; column < TileGrid.COLUMNS; column++) {
+                if ((cells [row][column]) && (covered [row][column] != 1)) {
+                    fail (name + ": cell (" + column + ", " + row + ") is covered by " + covered [row][column] + " merged rectangles, not 1");
+                } else if (cells [row][column]) {
+                    solidCells++;
+                }
+            }
+        }
+        if (grid.getTileRectCount () > solidCells) {
+            fail (name + ": " + solidCells + " Tiles were merged into " + grid.getTileRectCount () + " rectangles");
+        } checks++;
+    }
+    /*
+     * checkSweeps sweeps and pushes out random rectangles in every direction, and checks each answer against stepping one
+     * pixel at a time. Some of the sweeps are long, so they cross more than one merged rectangle.
+     */
+    private static void checkSweeps (String name, TileGrid grid, boolean[][] cells, Random random, int count) {
+        Sweep sweep = new Sweep ();
+
+        for (int i = 0; i < count; i++) {
+            int width = 1 + random.nextInt (90), height = 1 + random.nextInt (130);
+            int x = random.nextInt (PlatformerGame.WIDTH + 160) - 80, y = random.nextInt (PlatformerGame.HEIGHT + 160) - 80;
+            boolean horizontal = random.nextBoolean ();
+            int dir = random.nextBoolean () ? 1 : -1;
+            int reach = (random.nextInt (10) == 0) ? random.nextInt (600) : random.nextInt (60);
+            int dx = horizontal ? dir : 0, dy = horizontal ? 0 : dir;
+            int step = 1, stuck = 0;
+            String where = " at " + x + "," + y + " " + width + "x" + height + " moving " + dx + "," + dy;
+
+            while ((step <= reach) && (!hitsSolid (cells, x + step * dx, y + step * dy, width, height))) {
+                step++;
+            }
+            grid.sweep (x, y, width, height, dx * reach, dy * reach, sweep);
+            if ((sweep.distance != step - 1) || (sweep.hit != (step <= reach))) {
+                fail (name + ": sweep" + where + " by " + reach + " went " + sweep.distance + " (hit " + sweep.hit + "), not " + (step - 1)
+                      + " (hit " + (step <= reach) + ")");
+            }
+
+            while (hitsSolid (cells, x + stuck * dx, y + stuck * dy, width, height)) {
+                stuck++;
+            }
+            if (grid.pushOut (x, y, width, height, dx, dy) != stuck) {
+                fail (name + ": push-out" + where + " was " + grid.pushOut (x, y, width, height, dx, dy) + ", not " + stuck);
+            }
+
+            probes++;
+            if (sweep.hit) {
+                hits++;
+            }
+        } checks++;
+    }
+
+    /*
+     * cellsOf reads which cells of a map have a Tile in them.
+     */
+    private static boolean[][] cellsOf (TileMap map) {
+        boolean[][] cells = new boolean [map.getRows ()][TileGrid.COLUMNS];
+
+        for (int row = 0; row < map.getRows (); row++) {
+            for (int column = 0; column < Math.min (map.getColumns (), TileGrid.COLUMNS); column++) {
+                cells [row][column] = (map.getSprite (column, row) != null);
+            }
+        } return cells;
+    }
+    /*
+     * gridOf makes a TileGrid from the cells and the Borders, the same way Stage.loadMap does.
+     */
+    private static TileGrid gridOf (boolean[][] cells) {
+        TileGrid grid = new TileGrid (cells.length);
+
+        for (int row = 0; row < cells.length; row++) {
+            for (int column = 0; column < TileGrid.COLUMNS; column++) {
+                if (cells [row][column]) {
+                    grid.fill (column, row);
+                }
+            }
+        }
+        grid.merge ();
+        for (int[] border : BORDERS) {
+            grid.addSolid (border [0], border [1], border [2], border [3]);
+        } return grid;
+    }
+    /*
+     * hitsSolid checks if a rectangle intersects a cell with a Tile or a Border, one cell at a time. Only the cells in the
+     * rows and columns the rectangle reaches are looked at.
+     */
+    private static boolean hitsSolid (boolean[][] cells, int x, int y, int width, int height) {
+        for (int row = Math.max (0, y / Tile.TILE_LENGTH - 1); row < Math.min (cells.length, (y + height) / Tile.TILE_LENGTH + 1); row++) {
+            for (int column = Math.max (0, x / Tile.TILE_LENGTH - 1); column < Math.min (TileGrid.COLUMNS, (x + width) / Tile.TILE_LENGTH + 1); column++) {
+                if ((cells [row][column]) && (intersects (x, y, width, height, column * Tile.TILE_LENGTH, row * Tile.TILE_LENGTH,
+                                                          Tile.TILE_LENGTH, Tile.TILE_LENGTH))) {
+                    return true;
+                }
+            }
+        }
+        for (int[] border : BORDERS) {
+            if (intersects (x, y, width, height, border [0], border [1], border [2], border [3])) {
+                return true;
+            }
+        } return false;
+    }
+    /*
+     * intersects checks if two rectangles overlap, the same way Rectangle.intersects does.
+     */
+    private static boolean intersects (int x1, int y1, int w1, int h1, int x2, int y2, int w2, int h2) {
+        return (x1 < x2 + w2) && (x2 < x1 + w1) && (y1 < y2 + h2) && (y2 < y1 + h1);
+    }
+    /*
+     * fail says which check failed and exits.
+     */
+    private static void fail (String message) {
+        System.out.println ("FAILED " + message);
+        System.exit (1);
+    }
+}
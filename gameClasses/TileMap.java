@@ -0,0 +1,345 @@
+/*
+ * [TileMap.java]
+ * This file contains the class for a stage's tile map, compiled into a binary file.
+ * Author: Andy Wang
+ * Started on 18 Oct 2026
+ */
+
+/** All classes used in the game other than Main */
+package gameClasses;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A TileMap is a stage's map, compiled from its text file (e.g. TileMaps/Castle/2_Castle.txt) into a small binary file
+ * that Stage can read in one go. Which character is which tile isn't written in the code anymore: every level's folder
+ * has a palette.txt with a line for each tile, the character and then the folder of its sprite, so a new tileset only
+ * needs a palette. '%' and 'x' are always where the left and right players spawn, and '.' (or a space) is always empty.
+ * Any other character has to be in the palette, so a typo can't quietly leave a hole in the map.
+ * <p>
+ * The compiled file has a header (the size of the map, the spawn points and the palette) followed by every cell of the
+ * map, one byte each, row after row: 0 if the cell is empty, or 1 + the palette index of its tile. It is read through a
+ * memory-mapped FileChannel, so the cells are copied out with a single bulk get. Maps are compiled the first time they
+ * are needed, and again whenever the text file or the palette changes. They live in Maps/, which isn't committed.
+ * @author Andy Wang
+ * @since 18 Oct 2026
+ */
+public class TileMap {
+    /** Where the compiled maps are written. */
+    public static final File DIRECTORY = new File ("Maps");
+    /** The name of the palette file in every level's folder. */
+    public static final String PALETTE_NAME = "palette.txt";
+    /** The character for where the left player spawns. */
+    public static final char LEFT_SPAWN = '%';
+    /** The character for where the right player spawns. */
+    public static final char RIGHT_SPAWN = 'x';
+    /** The character for an empty cell. */
+    public static final char EMPTY = '.';
+
+    private static final int MAGIC = 0x544D4150; //"TMAP"
+    private static final int VERSION = 1;
+
+    private int columns, rows;
+    private int leftSpawnColumn = -1, leftSpawnRow = -1, rightSpawnColumn = -1, rightSpawnRow = -1; //-1 if there is none
+    private char[] codes;     //the character of each palette entry
+    private String[] folders; //the sprite folder of each palette entry
+    private Sprite[] sprites; //the sprite of each palette entry, made when first needed
+    private byte[] cells;     //0 for empty, otherwise 1 + a palette index, row after row
+
+    /*
+     * A TileMap is only made by load or compile.
+     */
+    private TileMap () {}
+
+    /**
+     * load returns a stage's map, compiling it first if it hasn't been or if it is out of date.
+     * @param textFile The map's text file, e.g. TileMaps/Castle/2_Castle.txt.
+     * @return The map.
+     * @throws IOException If the map can't be read or compiled, e.g. if it uses a tile its palette doesn't have.
+     */
+    public static TileMap load (File textFile) throws IOException {
+        File compiled = getCompiledFile (textFile);
+        long[] stamp = stamp (textFile);
+
+        if (compiled.exists ()) {
+            TileMap map = read (compiled, stamp);
+
+            if (map != null) {
+                return map;
+            }
+        } return compile (textFile);
+    }
+    /**
+     * compile compiles a stage's map from its text file and its level's palette, and writes it into DIRECTORY. If it can't
+     * be written, the map is still returned, and it will be compiled again next time.
+     * @param textFile The map's text file.
+     * @return The map.
+     * @throws IOException If the map or the palette can't be read, or they don't make sense.
+     */
+    public static TileMap compile (File textFile) throws IOException {
+        File compiled = getCompiledFile (textFile), temporary = new File (compiled.getPath () + ".tmp");
+        long[] stamp = stamp (textFile); //before reading, so a change made while compiling is noticed next time
+        List <String> lines = Files.readAllLines (textFile.toPath (), StandardCharsets.UTF_8);
+        TileMap map = new TileMap ();
+
+        map.readPalette (getPaletteFile (textFile));
+
+        /* Blank lines at the end aren't rows, the same as when the maps were read with a Scanner */
+        while ((!lines.isEmpty ()) && (lines.get (lines.size () - 1).trim ().isEmpty ())) {
+            lines.remove (lines.size () - 1);
+        }
+        map.rows = lines.size ();
+        for (String line : lines) {
+            map.columns = Math.max (map.columns, line.length ());
+        }
+
+        map.cells = new byte [map.columns * map.rows];
+        for (int row = 0; row < map.rows; row++) {
+            String line = lines.get (row);
+
+            for (int column = 0; column < line.length (); column++) {
+                char code = line.charAt (column);
+                int index = map.indexOf (code);
+
+                if (index >= 0) {
+                    map.cells [row * map.columns + column] = (byte) (index + 1);
+                } else if (code == LEFT_SPAWN) {
+                    if (map.leftSpawnRow >= 0) {
+                        throw new IOException (textFile + " has more than one left spawn");
+                    }
+                    map.leftSpawnColumn = column;
+                    map.leftSpawnRow = row;
+                } else if (code == RIGHT_SPAWN) {
+                    if (map.rightSpawnRow >= 0) {
+                        throw new IOException (textFile + " has more than one right spawn");
+                    }
+                    map.rightSpawnColumn = column;
+                    map.rightSpawnRow = row;
+                } else if ((code != EMPTY) && (code != ' ')) {
+                    throw new IOException (textFile + " uses '" + code + "' (row " + (row + 1) + ", column " + (column + 1)
+                                           + "), which isn't in " + getPaletteFile (textFile));
+                }
+            }
+        }
+
+        compiled.getParentFile ().mkdirs ();
+        try {
+            try (DataOutputStream out = new DataOutputStream (new BufferedOutputStream (new FileOutputStream (temporary)))) {
+                map.write (out, stamp);
+            } Files.move (temporary.toPath (), compiled.toPath (), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println ("Couldn't save the compiled map, it'll be compiled again next time: " + e.getMessage ());
+        } return map;
+    }
+    /**
+     * getColumns returns how many cells wide the map is (the length of its longest row).
+     * @return The number of columns.
+     */
+    public int getColumns () {
+        return this.columns;
+    }
+    /**
+     * getRows returns how many rows the map has.
+     * @return The number of rows.
+     */
+    public int getRows () {
+        return this.rows;
+    }
+    /**
+     * getSprite returns the sprite of the tile in a cell.
+     * @param column The cell's column.
+     * @param row The cell's row.
+     * @return The tile's sprite, or null if the cell is empty.
+     */
+    public Sprite getSprite (int column, int row) {
+        int entry = this.cells [row * this.columns + column] & 0xFF;
+
+        if (entry == 0) {
+            return null;
+        } if (this.sprites [entry - 1] == null) {
+            this.sprites [entry - 1] = new Sprite (this.folders [entry - 1]); //every map shares the frames, see Assets.frames
+        } return this.sprites [entry - 1];
+    }
+    /**
+     * isLeftSpawn checks if the left player spawns in a cell.
+     * @param column The cell's column.
+     * @param row The cell's row.
+     * @return If it does.
+     */
+    public boolean isLeftSpawn (int column, int row) {
+        return (column == this.leftSpawnColumn) && (row == this.leftSpawnRow);
+    }
+    /**
+     * isRightSpawn checks if the right player spawns in a cell.
+     * @param column The cell's column.
+     * @param row The cell's row.
+     * @return If it does.
+     */
+    public boolean isRightSpawn (int column, int row) {
+        return (column == this.rightSpawnColumn) && (row == this.rightSpawnRow);
+    }
+    /**
+     * getCompiledFile returns where a map's compiled file is kept, e.g. Maps/Castle/2_Castle.map.
+     * @param textFile The map's text file.
+     * @return The compiled file.
+     */
+    public static File getCompiledFile (File textFile) {
+        String name = textFile.getName ();
+
+        if (name.lastIndexOf ('.') > 0) {
+            name = name.substring (0, name.lastIndexOf ('.'));
+        } return new File (new File (DIRECTORY, textFile.getAbsoluteFile ().getParentFile ().getName ()), name + ".map");
+    }
+    /**
+     * getPaletteFile returns the palette of the level a map belongs to.
+     * @param textFile The map's text file.
+     * @return The palette file, beside the map.
+     */
+    public static File getPaletteFile (File textFile) {
+        return new File (textFile.getAbsoluteFile ().getParentFile (), PALETTE_NAME);
+    }
+    /*
+     * read maps a compiled file into memory and reads it.
+     * @return The map, or null if the file is from another version or was compiled from an older text file or palette.
+     */
+    private static TileMap read (File compiled, long[] stamp) throws IOException {
+        TileMap map = new TileMap ();
+
+        try (FileChannel channel = FileChannel.open (compiled.toPath (), StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map (FileChannel.MapMode.READ_ONLY, 0, channel.size ()); //big-endian, like DataOutputStream
+
+            if ((buffer.getInt () != MAGIC) || (buffer.getInt () != VERSION)) {
+                return null;
+            } for (long part : stamp) {
+                if (buffer.getLong () != part) {
+                    return null; //the text file or the palette changed
+                }
+            }
+
+            map.columns = buffer.getShort ();
+            map.rows = buffer.getShort ();
+            map.leftSpawnColumn = buffer.getShort ();
+            map.leftSpawnRow = buffer.getShort ();
+            map.rightSpawnColumn = buffer.getShort ();
+            map.rightSpawnRow = buffer.getShort ();
+
+            map.codes = new char [buffer.get () & 0xFF];
+            map.folders = new String [map.codes.length];
+            map.sprites = new Sprite [map.codes.length];
+            for (int i = 0; i < map.codes.length; i++) {
+                byte[] folder;
+
+                map.codes [i] = buffer.getChar ();
+                folder = new byte [buffer.getShort ()];
+                buffer.get (folder);
+                map.folders [i] = new String (folder, StandardCharsets.UTF_8);
+            }
+
+            map.cells = new byte [map.columns * map.rows];
+            buffer.get (map.cells); //the whole map at once
+        } catch (RuntimeException e) { //cut short or garbled, so just compile it again
+            return null;
+        } return map;
+    }
+    /*
+     * write writes the map in the compiled format.
+     * @param stamp The stamp of the text file and palette it was compiled from.
+     */
+    private void write (DataOutputStream out, long[] stamp) throws IOException {
+        out.writeInt (MAGIC);
+        out.writeInt (VERSION);
+        for (long part : stamp) {
+            out.writeLong (part);
+        }
+
+        out.writeShort (this.columns);
+        out.writeShort (this.rows);
+        out.writeShort (this.leftSpawnColumn);
+        out.writeShort (this.leftSpawnRow);
+        out.writeShort (this.rightSpawnColumn);
+        out.writeShort (this.rightSpawnRow);
+
+        out.writeByte (this.codes.length);
+        for (int i = 0; i < this.codes.length; i++) {
+            byte[] folder = this.folders [i].getBytes (StandardCharsets.UTF_8);
+
+            out.writeChar (this.codes [i]);
+            out.writeShort (folder.length);
+            out.write (folder);
+        }
+
+        out.write (this.cells);
+    }
+    /*
+     * readPalette reads a level's palette: a tile on each line, its character and then the folder of its sprite. Blank
+     * lines and lines starting with // are skipped.
+     */
+    private void readPalette (File paletteFile) throws IOException {
+        ArrayList <Character> paletteCodes = new ArrayList <Character> ();
+        ArrayList <String> paletteFolders = new ArrayList <String> ();
+
+        for (String line : Files.readAllLines (paletteFile.toPath (), StandardCharsets.UTF_8)) {
+            char code;
+            String folder;
+
+            if ((line.trim ().isEmpty ()) || (line.startsWith ("//"))) {
+                continue;
+            }
+
+            code = line.charAt (0);
+            folder = line.substring (1).trim ();
+            if ((code == LEFT_SPAWN) || (code == RIGHT_SPAWN) || (code == EMPTY) || (Character.isWhitespace (code)) || (code == ',')) {
+                throw new IOException (paletteFile + " can't use '" + code + "' for a tile");
+            } if (paletteCodes.contains (code)) {
+                throw new IOException (paletteFile + " has '" + code + "' more than once");
+            } if (!new File (folder).isDirectory ()) {
+                throw new IOException (paletteFile + " says '" + code + "' is " + folder + ", which isn't a folder");
+            }
+            paletteCodes.add (code);
+            paletteFolders.add (folder);
+        }
+
+        if (paletteCodes.size () > 255) {
+            throw new IOException (paletteFile + " has more than 255 tiles");
+        }
+        this.codes = new char [paletteCodes.size ()];
+        this.folders = paletteFolders.toArray (new String [0]);
+        this.sprites = new Sprite [this.codes.length];
+        for (int i = 0; i < this.codes.length; i++) {
+            this.codes [i] = paletteCodes.get (i);
+        }
+    }
+    /*
+     * indexOf returns the palette index of a character, or -1 if it isn't a tile.
+     */
+    private int indexOf (char code) {
+        for (int i = 0; i < this.codes.length; i++) {
+            if (this.codes [i] == code) {
+                return i;
+            }
+        } return -1;
+    }
+    /*
+     * stamp sums up a map's text file and its palette without reading them: their sizes and when they were last changed.
+     * If any of those change, the map is compiled again.
+     */
+    private static long[] stamp (File textFile) {
+        File paletteFile = getPaletteFile (textFile);
+
+        return new long [] {textFile.length (), textFile.lastModified (), paletteFile.length (), paletteFile.lastModified ()};
+    }
+}